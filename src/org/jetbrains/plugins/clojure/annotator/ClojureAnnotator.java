@@ -12,6 +12,7 @@ import org.jetbrains.plugins.clojure.highlighter.ClojureSyntaxHighlighter;
 import org.jetbrains.plugins.clojure.psi.api.ClKeyword;
 import org.jetbrains.plugins.clojure.psi.api.ClList;
 import org.jetbrains.plugins.clojure.psi.api.symbols.ClSymbol;
+import org.jetbrains.plugins.clojure.psi.resolve.ClojureFileResolver;
 
 import java.util.Arrays;
 import java.util.Set;
@@ -48,7 +49,7 @@ public class ClojureAnnotator implements Annotator {
 
   private void annotateList(ClList list, AnnotationHolder holder) {
     final ClSymbol first = list.getFirstSymbol();
-    if (first != null && (first.multiResolve(false).length > 0 ||
+    if (first != null && (ClojureFileResolver.multiResolve(first).length > 0 ||
         IMPLICIT_NAMES.contains(list.getHeadText()))) {
       Annotation annotation = holder.createInfoAnnotation(first, null);
       annotation.setTextAttributes(ClojureSyntaxHighlighter.DEF);
@@ -19,7 +19,9 @@ public class ClojureDocumentationProvider implements DocumentationProvider {
   public String getQuickNavigateInfo(PsiElement element, PsiElement originalElement) {
     if (element instanceof ClDef) {
       ClDef def = (ClDef) element;
-      return def.getPresentationText();
+      // stub-only: doesn't load the file of the definition
+      final String summary = def.getDocSummary();
+      return summary == null ? def.getPresentationText() : def.getPresentationText() + "\n" + summary;
     }
     if (element instanceof ClSymbol) {
       ClSymbol symbol = (ClSymbol) element;
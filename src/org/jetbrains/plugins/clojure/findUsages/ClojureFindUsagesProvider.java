@@ -11,6 +11,7 @@ import org.jetbrains.plugins.clojure.lexer.ClojureFlexLexer;
 import org.jetbrains.plugins.clojure.lexer.ClojureTokenTypes;
 import org.jetbrains.plugins.clojure.psi.api.defs.ClDef;
 import org.jetbrains.plugins.clojure.psi.api.symbols.ClSymbol;
+import org.jetbrains.plugins.clojure.psi.impl.defs.ClProtocolMethod;
 
 /**
  * @author ilyas
@@ -24,7 +25,7 @@ public class ClojureFindUsagesProvider implements FindUsagesProvider{
   }
 
   public boolean canFindUsagesFor(@NotNull PsiElement psiElement) {
-    return psiElement instanceof ClDef || psiElement instanceof ClSymbol;
+    return psiElement instanceof ClDef || psiElement instanceof ClSymbol || psiElement instanceof ClProtocolMethod;
   }
 
   public String getHelpId(@NotNull PsiElement psiElement) {
@@ -35,6 +36,7 @@ public class ClojureFindUsagesProvider implements FindUsagesProvider{
   public String getType(@NotNull PsiElement element) {
     if (element instanceof ClSymbol) return "symbol";
     if (element instanceof ClDef) return "definition";
+    if (element instanceof ClProtocolMethod) return "protocol method";
     return "entity";
   }
 
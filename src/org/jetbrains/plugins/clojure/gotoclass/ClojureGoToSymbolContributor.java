@@ -3,6 +3,7 @@ package org.jetbrains.plugins.clojure.gotoclass;
 import com.intellij.navigation.ChooseByNameContributor;
 import com.intellij.navigation.NavigationItem;
 import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiNamedElement;
 import com.intellij.psi.stubs.StubIndex;
 import com.intellij.psi.search.GlobalSearchScope;
 
@@ -11,15 +12,22 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.ArrayList;
 
+import org.jetbrains.plugins.clojure.psi.api.defs.ClDef;
+import org.jetbrains.plugins.clojure.psi.impl.ns.NamespaceUtil;
+import org.jetbrains.plugins.clojure.psi.stubs.index.ClDefFqnIndex;
 import org.jetbrains.plugins.clojure.psi.stubs.index.ClDefNameIndex;
+import org.jetbrains.plugins.clojure.psi.stubs.index.ClProtocolMethodIndex;
+import org.jetbrains.plugins.clojure.psi.stubs.index.ClojureTopLevelNamesIndex;
 
 /**
  * @author ilyas
  */
 public class ClojureGoToSymbolContributor implements ChooseByNameContributor {
   public String[] getNames(Project project, boolean includeNonProjectItems) {
+    final GlobalSearchScope scope = includeNonProjectItems ? GlobalSearchScope.allScope(project) : GlobalSearchScope.projectScope(project);
     Set<String> symbols = new HashSet<String>();
-    symbols.addAll(StubIndex.getInstance().getAllKeys(ClDefNameIndex.KEY, project));
+    symbols.addAll(ClojureTopLevelNamesIndex.getDefinitionNames(project, scope));
+    symbols.addAll(ClojureTopLevelNamesIndex.getQualifiedDefinitionNames(project, scope));
     return symbols.toArray(new String[symbols.size()]);
 
   }
@@ -27,8 +35,23 @@ public class ClojureGoToSymbolContributor implements ChooseByNameContributor {
   public NavigationItem[] getItemsByName(String name, String pattern, Project project, boolean includeNonProjectItems) {
     final GlobalSearchScope scope = includeNonProjectItems ? null : GlobalSearchScope.projectScope(project);
 
+    // Qualified patterns (str/join) are answered by ns/name keys only, short ones by short names only
+    final boolean isQualified = name.indexOf('/') > 0;
+    if (isQualified != (pattern != null && pattern.indexOf('/') > 0)) return NavigationItem.EMPTY_NAVIGATION_ITEM_ARRAY;
+
+    final List<ClDef> defs = new ArrayList<ClDef>();
+    defs.addAll(StubIndex.getInstance().get(isQualified ? ClDefFqnIndex.KEY : ClDefNameIndex.KEY, name, project, scope));
+    if (!isQualified) {
+      defs.addAll(StubIndex.getInstance().get(ClProtocolMethodIndex.KEY, name, project, scope));
+    }
+
+    final String shortName = isQualified ? name.substring(name.indexOf('/') + 1) : name;
     List<NavigationItem> symbols = new ArrayList<NavigationItem>();
-    symbols.addAll(StubIndex.getInstance().get(ClDefNameIndex.KEY, name, project, scope));
+    for (PsiNamedElement element : NamespaceUtil.getDefinitionsNamed(defs, shortName)) {
+      if (element instanceof NavigationItem) {
+        symbols.add((NavigationItem) element);
+      }
+    }
     return symbols.toArray(new NavigationItem[symbols.size()]);
   }
 }
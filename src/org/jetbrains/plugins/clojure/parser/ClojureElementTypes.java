@@ -6,12 +6,10 @@ import com.intellij.psi.tree.IStubFileElementType;
 import com.intellij.psi.tree.TokenSet;
 import org.jetbrains.plugins.clojure.lexer.ClojureTokenTypes;
 import org.jetbrains.plugins.clojure.psi.ClStubElementType;
-import org.jetbrains.plugins.clojure.psi.api.ClKeyword;
 import org.jetbrains.plugins.clojure.psi.api.defs.ClDef;
 import org.jetbrains.plugins.clojure.psi.api.ns.ClNs;
 import org.jetbrains.plugins.clojure.psi.impl.list.ClListImpl;
 import org.jetbrains.plugins.clojure.psi.stubs.api.ClDefStub;
-import org.jetbrains.plugins.clojure.psi.stubs.api.ClKeywordStub;
 import org.jetbrains.plugins.clojure.psi.stubs.api.ClNsStub;
 import org.jetbrains.plugins.clojure.psi.stubs.elements.*;
 import org.jetbrains.plugins.clojure.psi.stubs.elements.ns.ClCreateNsElementType;
@@ -43,7 +41,7 @@ public interface ClojureElementTypes extends ClojureTokenTypes {
 
   final ClStubElementType<ClDefStub, ClDef> DEF = new ClDefElementType();
   final ClStubElementType<ClDefStub, ClDef> DEFMETHOD = new ClDefMethodElementType();
-  final ClStubElementType<ClKeywordStub, ClKeyword> KEYWORD = new ClKeywordElementType();
+  final IElementType KEYWORD = new ClojureElementType("key definition");
 
   final ClStubElementType<ClNsStub, ClNs> NS = new ClNsElementType();
   final ClStubElementType<ClNsStub, ClNs> IN_NS = new ClInNsElementType();
@@ -2,6 +2,7 @@ package org.jetbrains.plugins.clojure.psi.api.defs;
 
 import com.intellij.navigation.NavigationItem;
 import com.intellij.psi.PsiNamedElement;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.plugins.clojure.psi.api.ClList;
 import org.jetbrains.plugins.clojure.psi.api.ClMetadata;
@@ -23,6 +24,39 @@ public interface ClDef extends ClList, PsiNamedElement, NavigationItem {
 
   String getParameterString();
 
+  /**
+   * @return first line of the documentation string
+   */
+  @Nullable
+  String getDocSummary();
+
+  /**
+   * @return true for <code>defn-</code> and definitions with <code>:private</code> metadata
+   */
+  boolean isPrivate();
+
+  boolean isMacro();
+
+  /**
+   * @return head of the definition form, e.g. <code>defn</code> or <code>defprotocol</code>
+   */
+  String getDefiner();
+
+  /**
+   * @return name of the namespace the definition belongs to
+   */
+  @Nullable
+  String getNamespace();
+
+  /**
+   * @return names of methods declared by <code>defprotocol</code>, empty for other definitions
+   */
+  @NotNull
+  String[] getProtocolMethodNames();
+
+  @NotNull
+  ClSymbol[] getProtocolMethodSymbols();
+
   @Nullable
   ClMetadata getMeta();
 }
@@ -34,4 +34,22 @@ public interface ClNs extends ClList, PsiNamedElement {
   @Nullable
   ClListLike addImportForClass(PsiElement place, PsiClass clazz);
 
+  /**
+   * Adds namespace to the <code>(:require ...)</code> clause, creating the clause if needed
+   */
+  @NotNull
+  ClList addRequireForNamespace(@NotNull String namespace);
+
+  /**
+   * @return namespaces loaded by require, use and refer directives of this form
+   */
+  @NotNull
+  String[] getRequiredNamespaces();
+
+  /**
+   * @return qualified names of classes imported by this form
+   */
+  @NotNull
+  String[] getImportedClasses();
+
 }
@@ -1,9 +1,23 @@
 package org.jetbrains.plugins.clojure.psi.api.synthetic;
 
 import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiField;
+import com.intellij.psi.PsiMethod;
+import org.jetbrains.annotations.NotNull;
 
 /**
  * @author ilyas
  */
 public interface ClSyntheticClass extends PsiClass {
+  /**
+   * @return methods declared by <code>:methods</code> of gen-class, without inherited ones
+   */
+  @NotNull
+  PsiMethod[] getGenClassMethods();
+
+  /**
+   * @return fields declared by gen-class, without inherited ones
+   */
+  @NotNull
+  PsiField[] getGenClassFields();
 }
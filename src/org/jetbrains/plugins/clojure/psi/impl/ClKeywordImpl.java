@@ -1,41 +1,30 @@
 package org.jetbrains.plugins.clojure.psi.impl;
 
 import com.intellij.lang.ASTNode;
-import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.TextRange;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiReference;
-import com.intellij.psi.StubBasedPsiElement;
-import com.intellij.psi.search.GlobalSearchScope;
-import com.intellij.psi.stubs.StubIndex;
+import com.intellij.util.ArrayUtil;
 import com.intellij.util.Function;
 import com.intellij.util.IncorrectOperationException;
 import com.intellij.util.containers.ContainerUtil;
 import org.jetbrains.annotations.NonNls;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.plugins.clojure.psi.ClStubElementType;
-import org.jetbrains.plugins.clojure.psi.ClojureBaseElementImpl;
+import org.jetbrains.plugins.clojure.psi.ClojurePsiElementImpl;
 import org.jetbrains.plugins.clojure.psi.api.ClKeyword;
-import org.jetbrains.plugins.clojure.psi.stubs.api.ClKeywordStub;
 import org.jetbrains.plugins.clojure.psi.stubs.api.ClNsStub;
-import org.jetbrains.plugins.clojure.psi.stubs.index.ClojureKeywordIndex;
 
-import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
 
 /**
  * @author ilyas
 */
-public class ClKeywordImpl extends ClojureBaseElementImpl<ClKeywordStub> implements ClKeyword, StubBasedPsiElement<ClKeywordStub> {
+public class ClKeywordImpl extends ClojurePsiElementImpl implements ClKeyword {
   public ClKeywordImpl(ASTNode node) {
     super(node);
   }
 
-  public ClKeywordImpl(ClKeywordStub stub, @NotNull ClStubElementType nodeType) {
-    super(stub, nodeType);
-  }
-
   @Override
   public String toString() {
     return "ClKeyword";
@@ -44,11 +33,6 @@ public class ClKeywordImpl extends ClojureBaseElementImpl<ClKeywordStub> impleme
   @Override
   @NotNull
   public String getName() {
-    ClKeywordStub stub = getStub();
-    if (stub != null) {
-      return stub.getName();
-    }
-
     return getText();
   }
 
@@ -94,10 +78,11 @@ public class ClKeywordImpl extends ClojureBaseElementImpl<ClKeywordStub> impleme
     return false;
   }
 
+  /**
+   * Keywords are completed by {@link org.jetbrains.plugins.clojure.psi.resolve.completion.KeywordCompletion}
+   */
   @NotNull
   public Object[] getVariants() {
-    final Project project = getProject();
-    final Collection<String> keys = StubIndex.getInstance().getAllKeys(ClojureKeywordIndex.KEY, project);
-    return keys.toArray(new String[keys.size()]);
+    return ArrayUtil.EMPTY_OBJECT_ARRAY;
   }
 }
@@ -292,27 +292,25 @@ public class ClojureFileImpl extends PsiFileBase implements ClojureFile {
     //Process precedent read forms
     ResolveUtil.processChildren(this, processor, state, lastParent, place);
 
-    final JavaPsiFacade facade = JavaPsiFacade.getInstance(getProject());
+    final String name = ResolveUtil.getExpectedName(processor);
 
     // Add all java.lang classes
-    final PsiPackage javaLang = facade.findPackage(ClojurePsiUtil.JAVA_LANG);
-    if (javaLang != null) {
-      for (PsiClass clazz : javaLang.getClasses()) {
-        if (!ResolveUtil.processElement(processor, clazz)) {
-          return false;
-        }
+    for (PsiClass clazz : NamespaceUtil.getJavaLangClasses(getProject(), name)) {
+      if (!ResolveUtil.processElement(processor, clazz)) {
+        return false;
       }
     }
 
     //Add top-level package names
-    final PsiPackage rootPackage = JavaPsiFacade.getInstance(getProject()).findPackage("");
-    if (rootPackage != null) {
-      NamespaceUtil.getNamespaceElement(rootPackage).processDeclarations(processor, state, null, place);
+    if (!NamespaceUtil.getNamespaceElement("", getProject()).processDeclarations(processor, state, null, place)) {
+      return false;
     }
 
     // Add all symbols from default namespaces
-    for (PsiNamedElement element : NamespaceUtil.getDefaultDefinitions(getProject())) {
-      if (PsiTreeUtil.findCommonParent(element, place) != element && !ResolveUtil.processElement(processor, element)) {
+    for (PsiNamedElement element : NamespaceUtil.getDefaultDefinitions(getProject(), name)) {
+      // Definitions from other files can't contain the place, don't load their AST to check it
+      if ((element.getContainingFile() != place.getContainingFile() || PsiTreeUtil.findCommonParent(element, place) != element) &&
+          !ResolveUtil.processElement(processor, element)) {
         return false;
       }
     }
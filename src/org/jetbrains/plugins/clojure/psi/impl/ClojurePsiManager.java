@@ -4,19 +4,36 @@ import com.intellij.openapi.components.ProjectComponent;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.startup.StartupManager;
-import com.intellij.psi.JavaPsiFacade;
-import com.intellij.psi.PsiFileFactory;
-import com.intellij.psi.PsiFile;
+import com.intellij.openapi.util.ModificationTracker;
+import com.intellij.psi.*;
+import com.intellij.psi.util.PsiTreeUtil;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.plugins.clojure.psi.api.ClojureFile;
+import org.jetbrains.plugins.clojure.psi.api.ns.ClNs;
+import org.jetbrains.plugins.clojure.psi.impl.list.LocalBindings;
 import org.jetbrains.plugins.clojure.psi.stubs.ClojureShortNamesCache;
 import org.jetbrains.plugins.clojure.file.ClojureFileType;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * @author ilyas
  */
 public class ClojurePsiManager implements ProjectComponent {
   private final Project myProject;
   private PsiFile myDummyFile;
+  private final AtomicLong myModificationCount = new AtomicLong();
+  private final ModificationTracker myModificationTracker = new ModificationTracker() {
+    public long getModificationCount() {
+      return myModificationCount.get();
+    }
+  };
+  private final AtomicLong myClassNamesModificationCount = new AtomicLong();
+  private final ModificationTracker myClassNamesModificationTracker = new ModificationTracker() {
+    public long getModificationCount() {
+      return myClassNamesModificationCount.get();
+    }
+  };
 
   public ClojurePsiManager(Project project) {
     myProject = project;
@@ -35,6 +52,7 @@ public class ClojurePsiManager implements ProjectComponent {
 
   public void initComponent() {
     myDummyFile = PsiFileFactory.getInstance(myProject).createFileFromText("dummy." + ClojureFileType.CLOJURE_FILE_TYPE.getDefaultExtension(), "");
+    PsiManager.getInstance(myProject).addPsiTreeChangeListener(new MyClojureChangeListener(), myProject);
   }
 
   public void disposeComponent() {
@@ -47,4 +65,83 @@ public class ClojurePsiManager implements ProjectComponent {
   public PsiFile getDummyFile() {
     return myDummyFile;
   }
+
+  /**
+   * @return tracker, which is incremented on every PSI change in Clojure files or in the file structure of the project
+   */
+  @NotNull
+  public ModificationTracker getModificationTracker() {
+    return myModificationTracker;
+  }
+
+  /**
+   * @return tracker, which is incremented when a class may have been added, removed or renamed in project sources:
+   * on changes of the file structure, of Clojure namespace forms, or of Java classes and their names
+   */
+  @NotNull
+  public ModificationTracker getClassNamesModificationTracker() {
+    return myClassNamesModificationTracker;
+  }
+
+  private static boolean isClassNamesChange(@NotNull PsiTreeChangeEvent event) {
+    final PsiFile file = event.getFile();
+    if (file == null) return true;
+    if (file instanceof ClojureFile) {
+      return PsiTreeUtil.getParentOfType(event.getParent(), ClNs.class, false) != null ||
+          event.getChild() instanceof ClNs || event.getOldChild() instanceof ClNs || event.getNewChild() instanceof ClNs;
+    }
+    if (event.getParent() instanceof PsiFile) return true;
+    return isClassOrClassName(event.getChild()) || isClassOrClassName(event.getOldChild()) ||
+        isClassOrClassName(event.getNewChild());
+  }
+
+  private static boolean isClassOrClassName(PsiElement element) {
+    return element instanceof PsiClass || element instanceof PsiIdentifier && element.getParent() instanceof PsiClass;
+  }
+
+  private class MyClojureChangeListener extends PsiTreeChangeAdapter {
+    private void changed(PsiTreeChangeEvent event) {
+      final PsiFile file = event.getFile();
+      if (file == null || file instanceof ClojureFile) {
+        myModificationCount.incrementAndGet();
+      }
+      if (isClassNamesChange(event)) {
+        myClassNamesModificationCount.incrementAndGet();
+      }
+      if (file instanceof ClojureFile) {
+        LocalBindings.subtreeChanged(event.getParent());
+        LocalBindings.subtreeChanged(event.getOldParent());
+      }
+    }
+
+    @Override
+    public void childAdded(@NotNull PsiTreeChangeEvent event) {
+      changed(event);
+    }
+
+    @Override
+    public void childRemoved(@NotNull PsiTreeChangeEvent event) {
+      changed(event);
+    }
+
+    @Override
+    public void childReplaced(@NotNull PsiTreeChangeEvent event) {
+      changed(event);
+    }
+
+    @Override
+    public void childrenChanged(@NotNull PsiTreeChangeEvent event) {
+      changed(event);
+    }
+
+    @Override
+    public void childMoved(@NotNull PsiTreeChangeEvent event) {
+      changed(event);
+    }
+
+    @Override
+    public void propertyChanged(@NotNull PsiTreeChangeEvent event) {
+      changed(event);
+    }
+  }
 }
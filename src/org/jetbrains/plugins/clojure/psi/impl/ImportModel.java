@@ -0,0 +1,211 @@
+package org.jetbrains.plugins.clojure.psi.impl;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.openapi.util.Key;
+import com.intellij.psi.*;
+import com.intellij.psi.scope.PsiScopeProcessor;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.plugins.clojure.psi.api.ClListLike;
+import org.jetbrains.plugins.clojure.psi.api.symbols.ClSymbol;
+import org.jetbrains.plugins.clojure.psi.impl.ns.NamespaceUtil;
+import org.jetbrains.plugins.clojure.psi.resolve.ResolveUtil;
+
+import java.util.*;
+
+/**
+ * Compiled form of <code>:import</code>, <code>:use</code>, <code>:require</code> and <code>:refer</code>
+ * directives of a namespace declaration or of a single directive call.
+ * Directives are parsed once per file modification, imported classes are resolved once per Java structure change.
+ *
+ * @author ilyas
+ */
+public class ImportModel {
+  private static final Key<CachedValue<ImportModel>> NAMESPACE_IMPORTS_KEY = Key.create("clojure.namespace.imports");
+  private static final Key<CachedValue<ImportModel>> DIRECTIVE_IMPORTS_KEY = Key.create("clojure.directive.imports");
+
+  private final Project myProject;
+  private final List<Entry> myEntries;
+  private final Map<String, PsiClass> myClasses = new HashMap<String, PsiClass>();
+
+  private ImportModel(@NotNull Project project, @NotNull List<Entry> entries) {
+    myProject = project;
+    myEntries = entries;
+    final JavaPsiFacade facade = JavaPsiFacade.getInstance(project);
+    final GlobalSearchScope scope = GlobalSearchScope.allScope(project);
+    for (Entry entry : entries) {
+      if (entry instanceof ClassEntry) {
+        final String qualifiedName = ((ClassEntry) entry).myQualifiedName;
+        final PsiClass clazz = facade.findClass(qualifiedName, scope);
+        if (clazz != null) {
+          myClasses.put(qualifiedName, clazz);
+        }
+      }
+    }
+  }
+
+  /**
+   * @param ns namespace declaration, all its directives are taken into account
+   */
+  @NotNull
+  public static ImportModel getNamespaceImports(@NotNull final PsiElement ns) {
+    return getImports(ns, NAMESPACE_IMPORTS_KEY, false);
+  }
+
+  /**
+   * @param directive a single import-like directive call, e.g. <code>(require 'clojure.string)</code>
+   */
+  @NotNull
+  public static ImportModel getDirectiveImports(@NotNull final ClListLike directive) {
+    return getImports(directive, DIRECTIVE_IMPORTS_KEY, true);
+  }
+
+  private static ImportModel getImports(final PsiElement owner, Key<CachedValue<ImportModel>> key, final boolean isDirective) {
+    final Project project = owner.getProject();
+    return CachedValuesManager.getManager(project).getCachedValue(owner, key, new CachedValueProvider<ImportModel>() {
+      public Result<ImportModel> compute() {
+        final List<Entry> entries = isDirective ?
+            ImportOwner.compileDirective((ClListLike) owner) :
+            ImportOwner.compileDirectives(owner);
+        return Result.create(new ImportModel(project, entries),
+            owner.getContainingFile(),
+            PsiModificationTracker.JAVA_STRUCTURE_MODIFICATION_COUNT,
+            ProjectRootManager.getInstance(project));
+      }
+    }, false);
+  }
+
+  public boolean process(PsiScopeProcessor processor) {
+    for (Entry entry : myEntries) {
+      if (!entry.process(this, processor)) return false;
+    }
+    return true;
+  }
+
+  static abstract class Entry {
+    abstract boolean process(ImportModel model, PsiScopeProcessor processor);
+  }
+
+  /**
+   * Imported Java class
+   */
+  static class ClassEntry extends Entry {
+    private final String myQualifiedName;
+
+    ClassEntry(String qualifiedName) {
+      myQualifiedName = qualifiedName;
+    }
+
+    String getQualifiedName() {
+      return myQualifiedName;
+    }
+
+    boolean process(ImportModel model, PsiScopeProcessor processor) {
+      return ResolveUtil.processElement(processor, model.myClasses.get(myQualifiedName));
+    }
+  }
+
+  /**
+   * Namespace required with <code>:as</code> alias
+   */
+  static class AliasEntry extends Entry {
+    private final ClSymbol myNamespace;
+    private final ClSymbol myAlias;
+
+    AliasEntry(ClSymbol namespace, ClSymbol alias) {
+      myNamespace = namespace;
+      myAlias = alias;
+    }
+
+    boolean process(ImportModel model, PsiScopeProcessor processor) {
+      final String expectedName = ResolveUtil.getExpectedName(processor);
+      if (expectedName == null) {
+        return processor.execute(myAlias, ResolveState.initial());
+      }
+      if (expectedName.equals(myAlias.getName())) {
+        for (ResolveResult result : myNamespace.multiResolve(false)) {
+          final PsiElement element = result.getElement();
+          if (element instanceof PsiNamedElement) {
+            return processor.execute(element, ResolveState.initial());
+          }
+        }
+      }
+      return true;
+    }
+  }
+
+  /**
+   * Namespace, which definitions are referred, possibly filtered and renamed
+   */
+  static class ReferEntry extends Entry {
+    private final String myNamespace;
+    private final ReferFilter myFilter;
+
+    ReferEntry(String namespace, ReferFilter filter) {
+      myNamespace = namespace;
+      myFilter = filter;
+    }
+
+    boolean process(ImportModel model, PsiScopeProcessor processor) {
+      final String expectedName = ResolveUtil.getExpectedName(processor);
+      final String originalName = expectedName == null ? null : myFilter.getOriginalName(expectedName);
+      for (PsiNamedElement element : NamespaceUtil.getDeclaredElements(myNamespace, originalName, model.myProject)) {
+        if (element != null) {
+          final String name = element.getName();
+          final String newName = myFilter.accept(name);
+          if (newName != null && (expectedName == null || expectedName.equals(newName))) {
+            if (newName.equals(name)) {
+              if (!ResolveUtil.processElement(processor, element)) return false;
+            } else {
+              if (!ResolveUtil.processElement(processor, element,
+                  ResolveState.initial().put(ResolveUtil.RENAMED_KEY, newName))) return false;
+            }
+          }
+        }
+      }
+      return true;
+    }
+  }
+
+  static class ReferFilter {
+    private final Set<String> excludes = new HashSet<String>();
+    private final Set<String> only = new HashSet<String>();
+    private final Map<String, String> renames = new HashMap<String, String>();
+
+    public void addExclude(String s) {
+      excludes.add(s);
+    }
+
+    public void addOnly(String s) {
+      only.add(s);
+    }
+
+    public void addRename(String from, String to) {
+      renames.put(from, to);
+    }
+
+    /**
+     * @return name of the referred element, which is visible as <code>newName</code>
+     */
+    public String getOriginalName(String newName) {
+      for (Map.Entry<String, String> entry : renames.entrySet()) {
+        if (newName.equals(entry.getValue())) return entry.getKey();
+      }
+      return newName;
+    }
+
+    @Nullable
+    public String accept(String name) {
+      if (excludes.contains(name)) return null;
+      if (!only.isEmpty() && !only.contains(name)) return null;
+      final String newName = renames.get(name);
+      return newName == null ? name : newName;
+    }
+  }
+}
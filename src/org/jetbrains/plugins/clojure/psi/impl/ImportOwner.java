@@ -1,15 +1,11 @@
 package org.jetbrains.plugins.clojure.psi.impl;
 
 import com.intellij.psi.*;
-import com.intellij.psi.scope.NameHint;
 import com.intellij.psi.scope.PsiScopeProcessor;
-import com.intellij.psi.search.GlobalSearchScope;
 import org.jetbrains.plugins.clojure.psi.ClojurePsiElement;
 import org.jetbrains.plugins.clojure.psi.api.*;
 import org.jetbrains.plugins.clojure.psi.api.symbols.ClSymbol;
 import org.jetbrains.plugins.clojure.psi.impl.list.ListDeclarations;
-import org.jetbrains.plugins.clojure.psi.impl.ns.NamespaceUtil;
-import org.jetbrains.plugins.clojure.psi.resolve.ResolveUtil;
 import org.jetbrains.plugins.clojure.psi.util.ClojureKeywords;
 import org.jetbrains.plugins.clojure.psi.util.ClojurePsiUtil;
 
@@ -20,19 +16,7 @@ import java.util.*;
  */
 public abstract class ImportOwner {
   public static boolean processDeclarations(PsiElement self, PsiScopeProcessor processor, PsiElement place) {
-    for (PsiElement element : self.getChildren()) {
-      if (element instanceof ClList || element instanceof ClVector) {
-        ClListLike directive = (ClListLike) element;
-        final PsiElement first = directive.getFirstNonLeafElement();
-        if (first == null) return true;
-        final String headText = first.getText();
-        if (!processImports(processor, place, directive, headText)) return false;
-        if (!processUses(processor, place, directive, headText)) return false;
-        if (!processRequires(processor, place, directive, headText)) return false;
-        if (!processRefer(processor, place, directive, headText)) return false;
-      }
-    }
-    return true;
+    return ImportModel.getNamespaceImports(self).process(processor);
   }
 
   /**
@@ -63,36 +47,12 @@ public abstract class ImportOwner {
    * (require '(clojure [string :as str] reflect))
    */
   public static boolean processRequires(PsiScopeProcessor processor, PsiElement place, ClListLike child, String headText) {
-    final boolean isRequireKeyword = ClojureKeywords.REQUIRE.equals(headText);
-    final boolean isRequireFunction = ListDeclarations.REQUIRE.equals(headText);
-    if (isRequireKeyword || isRequireFunction) {
-      if (processRequireInner(processor, place, child, isRequireKeyword, isRequireFunction)) return false;
+    if (ClojureKeywords.REQUIRE.equals(headText) || ListDeclarations.REQUIRE.equals(headText)) {
+      return ImportModel.getDirectiveImports(child).process(processor);
     }
     return true;
   }
 
-  private static boolean processRequireInner(PsiScopeProcessor processor, PsiElement place, ClListLike child, boolean requireKeyword, boolean requireFunction) {
-    for (PsiElement stmt : child.getChildren()) {
-      if (requireKeyword && !checkRequireStatement(processor, place, child, stmt)) return true;
-      if (requireFunction && stmt instanceof ClQuotedForm) {
-        final ClojurePsiElement quotedElement = ((ClQuotedForm) stmt).getQuotedElement();
-        if (!checkRequireStatement(processor, place, child, quotedElement)) return true;
-      }
-    }
-    return false;
-  }
-
-  private static boolean processReferInner(PsiScopeProcessor processor, PsiElement place, ClListLike child, boolean referKeyword, boolean referFunction) {
-    for (PsiElement stmt : child.getChildren()) {
-      if (referKeyword && !checkReferStatement(processor, place, child, stmt)) return true;
-      if (referFunction && stmt instanceof ClQuotedForm) {
-        final ClojurePsiElement quotedElement = ((ClQuotedForm) stmt).getQuotedElement();
-        if (!checkReferStatement(processor, place, child, quotedElement)) return true;
-      }
-    }
-    return false;
-  }
-
   /**
    * (refer ns-symbol & filters)
    * filters: :only list of symbols
@@ -103,10 +63,8 @@ public abstract class ImportOwner {
    * (refer '[clojure.string :only [join split]])
    */
   public static boolean processRefer(PsiScopeProcessor processor, PsiElement place, ClListLike directive, String headText) {
-    final boolean isReferKeyword = ClojureKeywords.REFER.equals(headText);
-    final boolean isReferFunction = ListDeclarations.REFER.equals(headText);
-    if (isReferKeyword || isReferFunction) {
-      if (processReferInner(processor, place, directive, isReferKeyword, isReferFunction)) return false;
+    if (ClojureKeywords.REFER.equals(headText) || ListDeclarations.REFER.equals(headText)) {
+      return ImportModel.getDirectiveImports(directive).process(processor);
     }
     return true;
   }
@@ -115,11 +73,8 @@ public abstract class ImportOwner {
    * Use = refer + require
    */
   public static boolean processUses(PsiScopeProcessor processor, PsiElement place, ClListLike directive, String headText) {
-    final boolean isUseKeyword = ClojureKeywords.USE.equals(headText);
-    final boolean isUseFunction = ListDeclarations.USE.equals(headText);
-    if (isUseKeyword || isUseFunction) {
-      if (processRequireInner(processor, place, directive, isUseKeyword, isUseFunction)) return false;
-      if (processReferInner(processor, place, directive, isUseKeyword, isUseFunction)) return false;
+    if (ClojureKeywords.USE.equals(headText) || ListDeclarations.USE.equals(headText)) {
+      return ImportModel.getDirectiveImports(directive).process(processor);
     }
     return true;
   }
@@ -147,121 +102,200 @@ public abstract class ImportOwner {
    * (import (java.util Date ArrayList))
    */
   public static boolean processImports(PsiScopeProcessor processor, PsiElement place, ClListLike child, String headText) {
-    final boolean isImportKeyword = ClojureKeywords.IMPORT.equals(headText);
-    final boolean isImportFunction = ListDeclarations.IMPORT.equals(headText);
-    if (isImportKeyword || isImportFunction) {
-      for (PsiElement stmt : child.getChildren()) {
-        if (!checkImportStatement(processor, place, child, stmt)) return false;
-        if (isImportFunction && stmt instanceof ClQuotedForm) {
-          final ClojurePsiElement quotedElement = ((ClQuotedForm) stmt).getQuotedElement();
-          if (!checkImportStatement(processor, place, child, quotedElement)) return false;
+    if (ClojureKeywords.IMPORT.equals(headText) || ListDeclarations.IMPORT.equals(headText)) {
+      return ImportModel.getDirectiveImports(child).process(processor);
+    }
+    return true;
+  }
+
+  /**
+   * Collects names of namespaces loaded by require, use and refer directives and of classes imported by
+   * import directives. Works on syntax only, nothing is resolved.
+   */
+  public static void collectDependencies(PsiElement self, Collection<String> namespaces, Collection<String> classes) {
+    for (PsiElement element : self.getChildren()) {
+      if (element instanceof ClList || element instanceof ClVector) {
+        final ClListLike directive = (ClListLike) element;
+        final PsiElement first = directive.getFirstNonLeafElement();
+        if (first == null) break;
+        final String headText = first.getText();
+
+        if (ClojureKeywords.IMPORT.equals(headText) || ListDeclarations.IMPORT.equals(headText)) {
+          for (ImportModel.Entry entry : compileDirective(directive)) {
+            if (entry instanceof ImportModel.ClassEntry) {
+              classes.add(((ImportModel.ClassEntry) entry).getQualifiedName());
+            }
+          }
+        }
+
+        final boolean isKeyword = ClojureKeywords.REQUIRE.equals(headText) ||
+            ClojureKeywords.USE.equals(headText) ||
+            ClojureKeywords.REFER.equals(headText);
+        final boolean isFunction = ListDeclarations.REQUIRE.equals(headText) ||
+            ListDeclarations.USE.equals(headText) ||
+            ListDeclarations.REFER.equals(headText);
+        if (isKeyword || isFunction) {
+          for (PsiElement stmt : directive.getChildren()) {
+            if (stmt == first) continue;
+            if (isKeyword) collectRequiredNamespaces(stmt, namespaces);
+            if (isFunction && stmt instanceof ClQuotedForm) {
+              collectRequiredNamespaces(((ClQuotedForm) stmt).getQuotedElement(), namespaces);
+            }
+          }
         }
       }
     }
-
-    return true;
   }
 
-  private static boolean checkImportStatement(PsiScopeProcessor processor, PsiElement place, ClListLike child, PsiElement stmt) {
+  private static void collectRequiredNamespaces(PsiElement stmt, Collection<String> namespaces) {
     if (stmt instanceof ClSymbol) {
-      if (!checkImportQualifier(processor, place, child, ((ClSymbol) stmt).getNameString())) return false;
+      namespaces.add(((ClSymbol) stmt).getNameString());
     } else if (stmt instanceof ClVector || stmt instanceof ClList) {
-      final ClListLike listLike = (ClListLike) stmt;
-      final List<String> qualifiedNames = extractImportQualifiedNames(listLike);
-      for (String qualifiedName : qualifiedNames) {
-        if (!checkImportQualifier(processor, place, child, qualifiedName)) return false;
+      final PsiElement fst = ((ClListLike) stmt).getFirstNonLeafElement();
+      if (!(fst instanceof ClSymbol)) return;
+      final String prefix = ((ClSymbol) fst).getNameString();
+      boolean isPrefixList = false;
+      for (PsiElement next = fst.getNextSibling(); next != null; next = next.getNextSibling()) {
+        // [clojure.string :as str :refer [join]]
+        if (next instanceof ClKeyword) break;
+        if (next instanceof ClSymbol) {
+          isPrefixList = true;
+          namespaces.add(prefix + "." + ((ClSymbol) next).getNameString());
+        } else if (next instanceof ClVector) {
+          final ClSymbol[] symbols = ((ClVector) next).getAllSymbols();
+          if (symbols.length > 0) {
+            isPrefixList = true;
+            namespaces.add(prefix + "." + symbols[0].getNameString());
+          }
+        }
       }
+      if (!isPrefixList) namespaces.add(prefix);
     }
-    return true;
   }
 
-  private static boolean checkRequireStatement(PsiScopeProcessor processor, PsiElement place, ClListLike child, PsiElement stmt) {
-    if (stmt instanceof ClSymbol) {
-      if (!checkRequireQualifier(processor, place, child, ((ClSymbol) stmt).getNameString())) return false;
-    } else if (stmt instanceof ClVector && isSpecialVector((ClVector) stmt, ClojureKeywords.AS)) {
-      ClVector vector = (ClVector) stmt;
-      final ClSymbol[] symbols = vector.getAllSymbols();
-      if (symbols.length > 0) {
-        final ClSymbol symbol = symbols[0];
-        if (!processVectorAliasSymbols(processor, vector, symbol)) return false;
-        if (!checkRequireQualifier(processor, place, child, symbol.getNameString())) {
-          return false;
-        }
+  static List<ImportModel.Entry> compileDirectives(PsiElement self) {
+    final List<ImportModel.Entry> entries = new ArrayList<ImportModel.Entry>();
+    for (PsiElement element : self.getChildren()) {
+      if (element instanceof ClList || element instanceof ClVector) {
+        final ClListLike directive = (ClListLike) element;
+        if (directive.getFirstNonLeafElement() == null) break;
+        compileDirective(directive, entries);
       }
-    } else if (stmt instanceof ClVector || stmt instanceof ClList) {
-      final ClListLike listLike = (ClListLike) stmt;
-      if (!processRequireQualifiedNames(processor, place, child, listLike)) return false;
     }
-    return true;
+    return entries;
   }
 
+  static List<ImportModel.Entry> compileDirective(ClListLike directive) {
+    final List<ImportModel.Entry> entries = new ArrayList<ImportModel.Entry>();
+    compileDirective(directive, entries);
+    return entries;
+  }
 
+  private static void compileDirective(ClListLike directive, List<ImportModel.Entry> entries) {
+    final PsiElement first = directive.getFirstNonLeafElement();
+    if (first == null) return;
+    final String headText = first.getText();
 
-  private static boolean checkReferStatement(PsiScopeProcessor processor, PsiElement place, ClListLike child, PsiElement stmt) {
-    if (stmt instanceof ClSymbol) {
-      if (!checkReferQualifier(processor, place, child, ((ClSymbol) stmt).getNameString(), new ReferFilter())) return false;
-    } else if (stmt instanceof ClVector && isSpecialVector((ClVector) stmt)) {
-      ClVector vector = (ClVector) stmt;
-      final ClSymbol[] symbols = vector.getAllSymbols();
-      if (symbols.length > 0) {
-        final ClSymbol symbol = symbols[0];
-        final ReferFilter referFilter = collectReferFilter(vector, symbol);
-        if (!checkReferQualifier(processor, place, child, symbol.getNameString(), referFilter)) {
-          return false;
+    final boolean isImportKeyword = ClojureKeywords.IMPORT.equals(headText);
+    final boolean isImportFunction = ListDeclarations.IMPORT.equals(headText);
+    if (isImportKeyword || isImportFunction) {
+      for (PsiElement stmt : directive.getChildren()) {
+        if (stmt == first) continue;
+        compileImportStatement(stmt, entries);
+        if (isImportFunction && stmt instanceof ClQuotedForm) {
+          compileImportStatement(((ClQuotedForm) stmt).getQuotedElement(), entries);
         }
       }
-    } else if (stmt instanceof ClVector || stmt instanceof ClList) {
-      final ClListLike listLike = (ClListLike) stmt;
-      if (!processReferQualifiedNames(processor, place, child, listLike)) return false;
     }
-    return true;
-  }
-
-  private static class ReferFilter {
-    private List<String> excludes = new ArrayList<String>();
-    private List<String> only = new ArrayList<String>();
-    private Map<String, ClSymbol> renames = new HashMap<String, ClSymbol>();
 
-    private void setHasOnly(boolean hasOnly) {
-      this.hasOnly = hasOnly;
+    final boolean isUseKeyword = ClojureKeywords.USE.equals(headText);
+    final boolean isUseFunction = ListDeclarations.USE.equals(headText);
+    if (isUseKeyword || isUseFunction) {
+      compileRequireInner(directive, isUseKeyword, isUseFunction, entries);
+      compileReferInner(directive, isUseKeyword, isUseFunction, entries);
     }
 
-    private boolean hasOnly = false;
-
-    public void addExclude(String s) {
-      excludes.add(s);
+    final boolean isRequireKeyword = ClojureKeywords.REQUIRE.equals(headText);
+    final boolean isRequireFunction = ListDeclarations.REQUIRE.equals(headText);
+    if (isRequireKeyword || isRequireFunction) {
+      compileRequireInner(directive, isRequireKeyword, isRequireFunction, entries);
     }
 
-    public void addOnly(String s) {
-      only.add(s);
+    final boolean isReferKeyword = ClojureKeywords.REFER.equals(headText);
+    final boolean isReferFunction = ListDeclarations.REFER.equals(headText);
+    if (isReferKeyword || isReferFunction) {
+      compileReferInner(directive, isReferKeyword, isReferFunction, entries);
     }
+  }
 
-    public void addRename(String from, ClSymbol to) {
-      renames.put(from, to);
+  private static void compileRequireInner(ClListLike child, boolean requireKeyword, boolean requireFunction,
+                                          List<ImportModel.Entry> entries) {
+    for (PsiElement stmt : child.getChildren()) {
+      if (requireKeyword) compileRequireStatement(stmt, entries);
+      if (requireFunction && stmt instanceof ClQuotedForm) {
+        compileRequireStatement(((ClQuotedForm) stmt).getQuotedElement(), entries);
+      }
     }
+  }
 
-    public List<String> getExcludes() {
-      return excludes;
+  private static void compileReferInner(ClListLike child, boolean referKeyword, boolean referFunction,
+                                        List<ImportModel.Entry> entries) {
+    for (PsiElement stmt : child.getChildren()) {
+      if (referKeyword) compileReferStatement(stmt, entries);
+      if (referFunction && stmt instanceof ClQuotedForm) {
+        compileReferStatement(((ClQuotedForm) stmt).getQuotedElement(), entries);
+      }
     }
+  }
 
-    private List<String> getOnly() {
-      return only;
+  private static void compileImportStatement(PsiElement stmt, List<ImportModel.Entry> entries) {
+    if (stmt instanceof ClSymbol) {
+      entries.add(new ImportModel.ClassEntry(((ClSymbol) stmt).getNameString()));
+    } else if (stmt instanceof ClVector || stmt instanceof ClList) {
+      for (String qualifiedName : extractImportQualifiedNames((ClListLike) stmt)) {
+        entries.add(new ImportModel.ClassEntry(qualifiedName));
+      }
     }
+  }
 
-    private Map<String, ClSymbol> getRenames() {
-      return renames;
+  private static void compileRequireStatement(PsiElement stmt, List<ImportModel.Entry> entries) {
+    if (stmt instanceof ClVector && isSpecialVector((ClVector) stmt, ClojureKeywords.AS)) {
+      final ClSymbol[] symbols = ((ClVector) stmt).getAllSymbols();
+      if (symbols.length > 0) {
+        compileVectorAliasSymbols((ClVector) stmt, symbols[0], entries);
+      }
+    } else if (stmt instanceof ClVector || stmt instanceof ClList) {
+      final PsiElement fst = ((ClListLike) stmt).getFirstNonLeafElement();
+      if (fst instanceof ClSymbol) {
+        PsiElement next = fst.getNextSibling();
+        while (next != null) {
+          if (next instanceof ClVector && isSpecialVector((ClVector) next, ClojureKeywords.AS)) {
+            final ClSymbol[] symbols = ((ClVector) next).getAllSymbols();
+            if (symbols.length > 0) {
+              compileVectorAliasSymbols((ClVector) next, symbols[0], entries);
+            }
+          }
+          next = next.getNextSibling();
+        }
+      }
     }
+  }
 
-    public String accept(String name) {
-      if (excludes.contains(name)) return null;
-      if (!only.isEmpty() && !only.contains(name)) return null;
-      final ClSymbol symbol = renames.get(name);
-      return symbol == null ? name : symbol.getNameString();
+  private static void compileReferStatement(PsiElement stmt, List<ImportModel.Entry> entries) {
+    if (stmt instanceof ClSymbol) {
+      entries.add(new ImportModel.ReferEntry(((ClSymbol) stmt).getNameString(), new ImportModel.ReferFilter()));
+    } else if (stmt instanceof ClVector && isSpecialVector((ClVector) stmt)) {
+      final ClSymbol[] symbols = ((ClVector) stmt).getAllSymbols();
+      if (symbols.length > 0) {
+        entries.add(new ImportModel.ReferEntry(symbols[0].getNameString(), collectReferFilter((ClVector) stmt)));
+      }
+    } else if (stmt instanceof ClVector || stmt instanceof ClList) {
+      compileReferQualifiedNames((ClListLike) stmt, entries);
     }
   }
 
-  private static ReferFilter collectReferFilter(ClVector vector, ClSymbol firstSymbol) {
-    final ReferFilter result = new ReferFilter();
+  private static ImportModel.ReferFilter collectReferFilter(ClVector vector) {
+    final ImportModel.ReferFilter result = new ImportModel.ReferFilter();
     for (PsiElement child : vector.getChildren()) {
       if (child instanceof ClKeyword) {
         final String keywordName = ((ClKeyword) child).getName();
@@ -288,7 +322,7 @@ public abstract class ImportOwner {
               final ClojurePsiElement key = entry.getKey();
               final ClojurePsiElement value = entry.getValue();
               if (key instanceof ClSymbol && value instanceof ClSymbol) {
-                result.addRename(((ClSymbol) key).getNameString(), (ClSymbol) value);
+                result.addRename(((ClSymbol) key).getNameString(), ((ClSymbol) value).getNameString());
               }
             }
           }
@@ -298,31 +332,16 @@ public abstract class ImportOwner {
     return result;
   }
 
-  private static boolean processVectorAliasSymbols(PsiScopeProcessor processor, ClVector vector, ClSymbol firstSymbol) {
+  private static void compileVectorAliasSymbols(ClVector vector, ClSymbol firstSymbol, List<ImportModel.Entry> entries) {
     for (PsiElement child : vector.getChildren()) {
       if (child instanceof ClKeyword && ((ClKeyword) child).getName().equals(ClojureKeywords.AS)) {
-        NameHint nameHint = processor.getHint(NameHint.KEY);
         final PsiElement symbol = ClojurePsiUtil.getNextNonWhiteSpace(child);
         if (symbol instanceof ClSymbol) {
-          String alias = nameHint == null ? null : nameHint.getName(ResolveState.initial());
-          final String aliasName = ((ClSymbol) symbol).getName();
-          if (alias != null && alias.equals(aliasName)) {
-            for (ResolveResult result : firstSymbol.multiResolve(false)) {
-              final PsiElement element = result.getElement();
-              if (element instanceof PsiNamedElement) {
-                PsiNamedElement namedElement = (PsiNamedElement) element;
-                return processor.execute(namedElement, ResolveState.initial());
-              }
-            }
-          } else if (nameHint == null) {
-            if (!processor.execute(symbol, ResolveState.initial())) return false;
-          }
+          entries.add(new ImportModel.AliasEntry(firstSymbol, (ClSymbol) symbol));
         }
         break;
       }
     }
-
-    return true;
   }
 
   public static boolean isSpecialVector(ClVector vector) {
@@ -341,40 +360,6 @@ public abstract class ImportOwner {
     return false;
   }
 
-  private static boolean checkImportQualifier(PsiScopeProcessor processor, PsiElement place, ClListLike child, String qualifiedName) {
-    final PsiClass clazz = JavaPsiFacade.getInstance(child.getProject()).
-        findClass(qualifiedName, GlobalSearchScope.allScope(place.getProject()));
-    return !(clazz != null && !ResolveUtil.processElement(processor, clazz));
-  }
-
-  private static boolean checkRequireQualifier(PsiScopeProcessor processor, PsiElement place, ClListLike child, String qualifiedName) {
-    //todo: See http://youtrack.jetbrains.com/issue/CLJ-169 for more details
-    //In current state we don't need to do any work here
-    return true;
-  }
-
-  private static boolean checkReferQualifier(PsiScopeProcessor processor, PsiElement place, ClListLike child,
-                                             String qualifiedName, ReferFilter filter) {
-    NameHint nameHint = processor.getHint(NameHint.KEY);
-    String expectedName = null;
-    if (nameHint != null) expectedName = nameHint.getName(ResolveState.initial());
-    for (PsiNamedElement element : NamespaceUtil.getDeclaredElements(qualifiedName, place.getProject())) {
-      if (element != null) {
-        final String name = element.getName();
-        final String newName = filter.accept(name);
-        if (newName != null && (expectedName == null || expectedName.equals(newName))) {
-          if (newName.equals(name)) {
-            if (!ResolveUtil.processElement(processor, element)) return false;
-          } else {
-            if (!ResolveUtil.processElement(processor, element,
-                ResolveState.initial().put(ResolveUtil.RENAMED_KEY, newName))) return false;
-          }
-        }
-      }
-    }
-    return true;
-  }
-
   private static List<String> extractImportQualifiedNames(ClListLike listLike) {
     final List<String> qualifiedNames = new ArrayList<String>();
     final PsiElement fst = listLike.getFirstNonLeafElement();
@@ -391,69 +376,30 @@ public abstract class ImportOwner {
     return qualifiedNames;
   }
 
-  private static boolean processRequireQualifiedNames(PsiScopeProcessor processor, PsiElement place, ClListLike child,
-                                                      ClListLike listLike) {
-    final PsiElement fst = listLike.getFirstNonLeafElement();
-    if (fst instanceof ClSymbol) {
-      PsiElement next = fst.getNextSibling();
-      while (next != null) {
-        if (next instanceof ClSymbol) {
-          ClSymbol clazzSym = (ClSymbol) next;
-          if (!checkRequireQualifier(processor, place, child, ((ClSymbol) fst).getNameString() + "." + clazzSym.getNameString())) {
-            return false;
-          }
-        } else if (next instanceof ClVector) {
-          ClVector vector = (ClVector) next;
-          final ClSymbol[] symbols = vector.getAllSymbols();
-          if (symbols.length > 0) {
-            final ClSymbol symbol = symbols[0];
-            if (isSpecialVector((ClVector) next, ClojureKeywords.AS) &&
-                !processVectorAliasSymbols(processor, vector, symbol)) return false;
-            if (!checkRequireQualifier(processor, place, child,
-                ((ClSymbol) fst).getNameString() + "." + symbol.getNameString())) {
-              return false;
-            }
-          }
-        }
-        next = next.getNextSibling();
-      }
-    }
-    return true;
-  }
-
-  private static boolean processReferQualifiedNames(PsiScopeProcessor processor, PsiElement place, ClListLike child,
-                                                    ClListLike listLike) {
+  private static void compileReferQualifiedNames(ClListLike listLike, List<ImportModel.Entry> entries) {
     final PsiElement fst = listLike.getFirstNonLeafElement();
     if (fst instanceof ClSymbol) {
+      final String prefix = ((ClSymbol) fst).getNameString();
       PsiElement next = fst.getNextSibling();
       boolean isSimple = true;
       while (next != null) {
         if (next instanceof ClSymbol) {
           isSimple = false;
-          ClSymbol clazzSym = (ClSymbol) next;
-          if (!checkReferQualifier(processor, place, child, ((ClSymbol) fst).getNameString() + "." + clazzSym.getNameString(), new ReferFilter())) {
-            return false;
-          }
+          entries.add(new ImportModel.ReferEntry(prefix + "." + ((ClSymbol) next).getNameString(), new ImportModel.ReferFilter()));
         } else if (next instanceof ClVector) {
           isSimple = false;
           ClVector vector = (ClVector) next;
           final ClSymbol[] symbols = vector.getAllSymbols();
           if (symbols.length > 0) {
-            final ClSymbol symbol = symbols[0];
-            ReferFilter filter = collectReferFilter(vector, symbol);
-            if (!checkReferQualifier(processor, place, child,
-                ((ClSymbol) fst).getNameString() + "." + symbol.getNameString(), filter)) {
-              return false;
-            }
+            entries.add(new ImportModel.ReferEntry(prefix + "." + symbols[0].getNameString(), collectReferFilter(vector)));
           }
         }
 
         if (isSimple && listLike instanceof ClVector) {
-          if (!checkReferQualifier(processor, place, child, ((ClSymbol) fst).getNameString(), new ReferFilter())) return false;
+          entries.add(new ImportModel.ReferEntry(prefix, new ImportModel.ReferFilter()));
         }
         next = next.getNextSibling();
       }
     }
-    return true;
   }
 }
@@ -6,23 +6,29 @@ import com.intellij.openapi.editor.colors.TextAttributesKey;
 import com.intellij.openapi.util.Iconable;
 import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
 import com.intellij.psi.ResolveState;
 import com.intellij.psi.StubBasedPsiElement;
 import com.intellij.psi.impl.source.tree.LeafPsiElement;
 import com.intellij.psi.scope.PsiScopeProcessor;
 import com.intellij.psi.stubs.IStubElementType;
 import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.ArrayUtil;
 import com.intellij.util.IncorrectOperationException;
 import org.jetbrains.annotations.NonNls;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.plugins.clojure.ClojureIcons;
 import org.jetbrains.plugins.clojure.lexer.ClojureTokenTypes;
+import org.jetbrains.plugins.clojure.parser.ClojureSpecialFormTokens;
 import org.jetbrains.plugins.clojure.psi.ClojurePsiElement;
 import org.jetbrains.plugins.clojure.psi.api.*;
 import org.jetbrains.plugins.clojure.psi.api.defs.ClDef;
 import org.jetbrains.plugins.clojure.psi.api.symbols.ClSymbol;
+import org.jetbrains.plugins.clojure.psi.impl.ClMetaForm;
 import org.jetbrains.plugins.clojure.psi.impl.list.ClListBaseImpl;
+import org.jetbrains.plugins.clojure.psi.impl.list.ListDeclarations;
+import org.jetbrains.plugins.clojure.psi.impl.list.LocalBindings;
 import org.jetbrains.plugins.clojure.psi.resolve.ResolveUtil;
 import org.jetbrains.plugins.clojure.psi.stubs.api.ClDefStub;
 import org.jetbrains.plugins.clojure.psi.stubs.api.ClNsStub;
@@ -86,9 +92,7 @@ public class ClDefImpl extends ClListBaseImpl<ClDefStub> implements ClDef, StubB
     if (lastParent != null && lastParent.getParent() == this) {
       final ClVector paramVector = findChildByClass(ClVector.class);
       if (paramVector != null) {
-        for (ClSymbol symbol : paramVector.getAllSymbols()) {
-          if (!ResolveUtil.processElement(processor, symbol)) return false;
-        }
+        if (!LocalBindings.processAllSymbols(processor, paramVector)) return false;
       }
       // for recursive functions
       if (getNameSymbol() != null && lastParent != getNameSymbol() && !ResolveUtil.processElement(processor, getNameSymbol())) return false;
@@ -97,18 +101,25 @@ public class ClDefImpl extends ClListBaseImpl<ClDefStub> implements ClDef, StubB
         final PsiElement elem = list.getFirstNonLeafElement();
         if (elem instanceof ClVector && !PsiTreeUtil.isAncestor(elem, place, false)) {
           final ClVector params = (ClVector) elem;
-          if (params != null) {
-            for (ClSymbol symbol : params.getAllSymbols()) {
-              if (!ResolveUtil.processElement(processor, symbol)) return false;
-            }
-          }
+          if (!LocalBindings.processAllSymbols(processor, params)) return false;
         }
       }
 
       return true;
     } else {
-      return ResolveUtil.processElement(processor, this);
+      return ResolveUtil.processElement(processor, this) && processProtocolMethods(processor);
+    }
+  }
+
+  private boolean processProtocolMethods(PsiScopeProcessor processor) {
+    final String[] names = getProtocolMethodNames();
+    if (names.length == 0) return true;
+    final String name = ResolveUtil.getExpectedName(processor);
+    if (name != null && !ArrayUtil.contains(name, names)) return true;
+    for (String method : names) {
+      if (!ResolveUtil.processElement(processor, new ClProtocolMethod(this, method))) return false;
     }
+    return true;
   }
 
   @Override
@@ -148,25 +159,37 @@ public class ClDefImpl extends ClListBaseImpl<ClDefStub> implements ClDef, StubB
   }
 
   public String getDocString() {
+    // For doc String
+    final String s = processString(getDocStringLiteral());
+    if (s != null) return s;
+
+    final ClMetadata meta = getMeta();
+    if (meta == null) return null;
+    return processMetadata(meta);
+  }
+
+  @Nullable
+  private PsiElement getDocStringLiteral() {
     PsiElement element = getSecondNonLeafElement();
     if (element == null) return null;
     element = element.getNextSibling();
     while (element != null && isWrongElement(element)) {
       element = element.getNextSibling();
     }
-    // For doc String
-    final String s = processString(element);
-    if (s != null) return s;
+    return isStringLiteral(element) ? element : null;
+  }
 
-    final ClMetadata meta = getMeta();
-    if (meta == null) return null;
-    return processMetadata(meta);
+  private static boolean isStringLiteral(PsiElement element) {
+    return element instanceof ClLiteral && element.getFirstChild().getNode().getElementType() == ClojureTokenTypes.STRING_LITERAL;
+  }
+
+  private static String unquote(String rawText) {
+    return StringUtil.trimStart(StringUtil.trimEnd(rawText, "\""), "\"");
   }
 
   private String processString(PsiElement element) {
-    if (element instanceof ClLiteral && element.getFirstChild().getNode().getElementType() == ClojureTokenTypes.STRING_LITERAL) {
-      final String rawText = element.getText();
-      final String str = StringUtil.trimStart(StringUtil.trimEnd(rawText, "\""), "\"");
+    if (isStringLiteral(element)) {
+      final String str = unquote(element.getText());
       return str.replace("\n  ", "\n").replace("\n","<br/>");
     }
     return null;
@@ -231,8 +254,120 @@ public class ClDefImpl extends ClListBaseImpl<ClDefStub> implements ClDef, StubB
   }
 
   public String getParameterString() {
+    ClDefStub stub = getStub();
+    if (stub != null) {
+      return stub.getParameterString();
+    }
+
     final ClVector params = findChildByClass(ClVector.class);
-    return params == null ? "" : params.getText();
+    if (params != null) return params.getText();
+    // overloaded function (defn ([x] body) ([x y] body))
+    final StringBuilder buffer = new StringBuilder();
+    for (ClList overload : findChildrenByClass(ClList.class)) {
+      final PsiElement elem = overload.getFirstNonLeafElement();
+      if (elem instanceof ClVector) {
+        if (buffer.length() > 0) buffer.append(" ");
+        buffer.append(elem.getText());
+      }
+    }
+    return buffer.toString();
+  }
+
+  @Nullable
+  public String getDocSummary() {
+    ClDefStub stub = getStub();
+    if (stub != null) {
+      return stub.getDocSummary();
+    }
+
+    final PsiElement literal = getDocStringLiteral();
+    String doc = literal == null ? null : unquote(literal.getText());
+    if (doc == null) {
+      final ClMetadata meta = getMeta();
+      final ClojurePsiElement value = meta == null ? null : meta.getValue("doc");
+      doc = value instanceof ClLiteral ? unquote(value.getText()) : null;
+    }
+    if (doc == null) return null;
+    final String line = doc.trim().split("\n", 2)[0].trim();
+    return line.length() == 0 ? null : line;
+  }
+
+  public boolean isPrivate() {
+    ClDefStub stub = getStub();
+    if (stub != null) {
+      return stub.isPrivate();
+    }
+
+    if (ListDeclarations.DEFN_.equals(getHeadText())) return true;
+    for (ClMetaForm form : findChildrenByClass(ClMetaForm.class)) {
+      final PsiElement value = form.getLastChild();
+      if (value instanceof ClKeyword && ":private".equals(value.getText())) return true;
+      if (value instanceof ClMap) {
+        final ClojurePsiElement flag = ((ClMap) value).getValue("private");
+        if (flag != null && "true".equals(flag.getText())) return true;
+      }
+    }
+    return false;
+  }
+
+  public boolean isMacro() {
+    ClDefStub stub = getStub();
+    if (stub != null) {
+      return stub.isMacro();
+    }
+    return ListDeclarations.DEFMACRO.equals(getHeadText());
+  }
+
+  public String getDefiner() {
+    ClDefStub stub = getStub();
+    if (stub != null) {
+      return stub.getDefiner();
+    }
+
+    final String head = getHeadText();
+    return head == null ? "" : head;
+  }
+
+  @Nullable
+  public String getNamespace() {
+    ClDefStub stub = getStub();
+    if (stub != null) {
+      return stub.getNamespace();
+    }
+
+    final PsiFile file = getContainingFile();
+    return file instanceof ClojureFile ? ((ClojureFile) file).getNamespace() : null;
+  }
+
+  @NotNull
+  public String[] getProtocolMethodNames() {
+    ClDefStub stub = getStub();
+    if (stub != null) {
+      return stub.getProtocolMethodNames();
+    }
+
+    final ClSymbol[] symbols = getProtocolMethodSymbols();
+    final String[] names = new String[symbols.length];
+    for (int i = 0; i < symbols.length; i++) {
+      names[i] = symbols[i].getNameString();
+    }
+    return names;
+  }
+
+  /**
+   * @return method names of <code>(defprotocol P (m [this]) ...)</code>
+   */
+  @NotNull
+  public ClSymbol[] getProtocolMethodSymbols() {
+    if (!ClojureSpecialFormTokens.tDEFPROTOCOL.equals(getDefiner())) return ClSymbol.EMPTY_ARRAY;
+    final ArrayList<ClSymbol> result = new ArrayList<ClSymbol>();
+    for (ClList signature : findChildrenByClass(ClList.class)) {
+      final PsiElement first = signature.getFirstNonLeafElement();
+      if (first instanceof ClSymbol) {
+        result.add((ClSymbol) first);
+      }
+    }
+    return result.toArray(new ClSymbol[result.size()]);
   }
 
   public ClMetadata getMeta() {
@@ -0,0 +1,143 @@
+package org.jetbrains.plugins.clojure.psi.impl.defs;
+
+import com.intellij.navigation.ItemPresentation;
+import com.intellij.navigation.NavigationItem;
+import com.intellij.psi.*;
+import com.intellij.psi.impl.light.LightElement;
+import com.intellij.util.IncorrectOperationException;
+import org.jetbrains.annotations.NonNls;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.plugins.clojure.file.ClojureFileType;
+import org.jetbrains.plugins.clojure.psi.api.defs.ClDef;
+import org.jetbrains.plugins.clojure.psi.api.symbols.ClSymbol;
+
+import javax.swing.*;
+
+/**
+ * Method of a protocol, built from its method names, so that stubs are enough to resolve it.
+ * All references to protocol methods resolve to these elements, whether the protocol file is parsed or not.
+ * The method symbol, and with it the AST of the protocol file, is loaded only on navigation or rename.
+ *
+ * @author ilyas
+ */
+public class ClProtocolMethod extends LightElement implements PsiNamedElement, NavigationItem {
+  @NotNull private final ClDef myProtocol;
+  @NotNull private final String myName;
+
+  public ClProtocolMethod(@NotNull ClDef protocol, @NotNull String name) {
+    super(protocol.getManager(), ClojureFileType.CLOJURE_LANGUAGE);
+    myProtocol = protocol;
+    myName = name;
+  }
+
+  @NotNull
+  public ClDef getProtocol() {
+    return myProtocol;
+  }
+
+  @NotNull
+  public String getName() {
+    return myName;
+  }
+
+  public PsiElement setName(@NonNls @NotNull String name) throws IncorrectOperationException {
+    final ClSymbol symbol = getMethodSymbol();
+    if (symbol == null) throw new IncorrectOperationException("protocol method " + myName + " not found");
+    symbol.setName(name);
+    return new ClProtocolMethod(myProtocol, name);
+  }
+
+  /**
+   * @return method symbol of <code>(defprotocol P (m [this]))</code>, or null if it has gone
+   */
+  @Nullable
+  public ClSymbol getMethodSymbol() {
+    for (ClSymbol symbol : myProtocol.getProtocolMethodSymbols()) {
+      if (myName.equals(symbol.getNameString())) return symbol;
+    }
+    return null;
+  }
+
+  @NotNull
+  @Override
+  public PsiElement getNavigationElement() {
+    final ClSymbol symbol = getMethodSymbol();
+    return symbol != null ? symbol : myProtocol;
+  }
+
+  @Override
+  public PsiElement getParent() {
+    return myProtocol;
+  }
+
+  @Override
+  public PsiFile getContainingFile() {
+    return myProtocol.getContainingFile();
+  }
+
+  @Override
+  public boolean isValid() {
+    return myProtocol.isValid();
+  }
+
+  @Override
+  public ItemPresentation getPresentation() {
+    final ItemPresentation protocolPresentation = myProtocol.getPresentation();
+    return new ItemPresentation() {
+      public String getPresentableText() {
+        return myName;
+      }
+
+      @Nullable
+      public String getLocationString() {
+        return protocolPresentation == null ? null : protocolPresentation.getLocationString();
+      }
+
+      @Nullable
+      public Icon getIcon(boolean open) {
+        return protocolPresentation == null ? null : protocolPresentation.getIcon(open);
+      }
+    };
+  }
+
+  public String getText() {
+    return myName;
+  }
+
+  public void accept(@NotNull PsiElementVisitor visitor) {
+  }
+
+  public PsiElement copy() {
+    throw new IncorrectOperationException("cannot copy: nonphysical element");
+  }
+
+  /**
+   * Protocol methods are created anew by every lookup, and stand for the symbol of the method declaration
+   */
+  @Override
+  public boolean isEquivalentTo(PsiElement another) {
+    if (equals(another)) return true;
+    return another instanceof ClSymbol && myName.equals(((ClSymbol) another).getNameString()) &&
+        another.getParent() != null && myProtocol.equals(another.getParent().getParent()) &&
+        another == getMethodSymbol();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (!(o instanceof ClProtocolMethod)) return false;
+    final ClProtocolMethod that = (ClProtocolMethod) o;
+    return myName.equals(that.myName) && myProtocol.equals(that.myProtocol);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * myProtocol.hashCode() + myName.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return "ClojureProtocolMethod[" + myName + "]";
+  }
+}
@@ -45,6 +45,7 @@ public class ListDeclarations {
 
   public static final String DEFN = "defn";
   public static final String DEFN_ = "defn-";
+  public static final String DEFMACRO = "defmacro";
   public static final String IMPORT = "import";
   private static final String MEMFN = "memfn";
   public static final String USE = "use";
@@ -57,6 +58,24 @@ public class ListDeclarations {
       LET, WITH_OPEN, WITH_LOCAL_VARS, WHEN_LET, WHEN_FIRST, FOR, IF_LET, LOOP, FN, DOSEQ
   ));
 
+  private static final Set<String> PLACE_DEPENDENT_FORMS = new HashSet<String>(Arrays.asList(
+      IMPORT, USE, REFER, REQUIRE, MEMFN, DOT, DECLARE, ClojureKeywords.USE
+  ));
+
+  /**
+   * @return true if the form binds local names, which are visible inside it
+   */
+  public static boolean isLocalBindingForm(@Nullable String headText) {
+    return headText != null && LOCAL_BINDINGS.contains(headText);
+  }
+
+  /**
+   * @return true if declarations of the form depend on the exact place of resolve, not only on the enclosing scopes
+   */
+  public static boolean isPlaceDependentForm(@Nullable String headText) {
+    return headText != null && PLACE_DEPENDENT_FORMS.contains(headText);
+  }
+
   public static boolean get(PsiScopeProcessor processor,
                             ResolveState state,
                             PsiElement lastParent,
@@ -113,9 +132,7 @@ public class ListDeclarations {
   private static boolean processDeclareDeclaration(PsiScopeProcessor processor, ClList list, PsiElement place, PsiElement lastParent) {
     final ClVector paramVector = list.findFirstChildByClass(ClVector.class);
     if (paramVector != null) {
-      for (ClSymbol symbol : paramVector.getOddSymbols()) {
-        if (!ResolveUtil.processElement(processor, symbol)) return false;
-      }
+      if (!LocalBindings.processOddSymbols(processor, paramVector)) return false;
     }
     return true;
   }
@@ -124,9 +141,7 @@ public class ListDeclarations {
     if (lastParent != null && lastParent.getParent() == list) {
       final ClVector paramVector = list.findFirstChildByClass(ClVector.class);
       if (paramVector != null) {
-        for (ClSymbol symbol : paramVector.getOddSymbols()) {
-          if (!ResolveUtil.processElement(processor, symbol)) return false;
-        }
+        if (!LocalBindings.processOddSymbols(processor, paramVector)) return false;
       }
       return true;
     }
@@ -138,9 +153,7 @@ public class ListDeclarations {
     if (lastParent != null && lastParent.getParent() == list) {
       final ClVector paramVector = list.findFirstChildByClass(ClVector.class);
       if (paramVector != null) {
-        for (ClSymbol symbol : paramVector.getOddSymbols()) {
-          if (!ResolveUtil.processElement(processor, symbol)) return false;
-        }
+        if (!LocalBindings.processOddSymbols(processor, paramVector)) return false;
       }
       return true;
     }
@@ -199,9 +212,7 @@ public class ListDeclarations {
     if (PsiTreeUtil.findCommonParent(place, list) == list) {
       final ClVector paramVector = list.findFirstChildByClass(ClVector.class);
       if (paramVector != null) {
-        for (ClSymbol symbol : paramVector.getOddSymbols()) {
-          if (!ResolveUtil.processElement(processor, symbol)) return false;
-        }
+        if (!LocalBindings.processOddSymbols(processor, paramVector)) return false;
       }
       return true;
     }
@@ -223,9 +234,7 @@ public class ListDeclarations {
       }
 
       if (paramVector != null) {
-        for (ClSymbol symbol : paramVector.getAllSymbols()) {
-          if (!ResolveUtil.processElement(processor, symbol)) return false;
-        }
+        if (!LocalBindings.processAllSymbols(processor, paramVector)) return false;
       }
       return true;
     }
@@ -0,0 +1,147 @@
+package org.jetbrains.plugins.clojure.psi.impl.list;
+
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.ModificationTracker;
+import com.intellij.openapi.util.UserDataHolderEx;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.scope.PsiScopeProcessor;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.util.containers.MultiMap;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.plugins.clojure.psi.api.ClVector;
+import org.jetbrains.plugins.clojure.psi.api.symbols.ClSymbol;
+import org.jetbrains.plugins.clojure.psi.resolve.ResolveUtil;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Scope table of local bindings. Names bound by binding vectors (let, loop, doseq, fn and def parameters)
+ * are collected lazily and kept per top-level form until that form changes.
+ *
+ * @author ilyas
+ */
+public class LocalBindings {
+  private static final Key<CachedValue<ScopeTable>> SCOPE_TABLE_KEY = Key.create("clojure.local.scope.table");
+  private static final Key<FormModificationTracker> FORM_TRACKER_KEY = Key.create("clojure.form.modification.tracker");
+
+  /**
+   * Processes symbols on even positions of binding vector, e.g. <code>[x 1 y 2]</code>
+   */
+  public static boolean processOddSymbols(@NotNull PsiScopeProcessor processor, @NotNull ClVector vector) {
+    final ScopeTable table = getScopeTable(vector);
+    return table == null ?
+        processAll(processor, vector.getOddSymbols()) :
+        table.getBindings(vector, true).process(processor);
+  }
+
+  /**
+   * Processes all symbols of parameter vector, e.g. <code>[x y & more]</code>
+   */
+  public static boolean processAllSymbols(@NotNull PsiScopeProcessor processor, @NotNull ClVector vector) {
+    final ScopeTable table = getScopeTable(vector);
+    return table == null ?
+        processAll(processor, vector.getAllSymbols()) :
+        table.getBindings(vector, false).process(processor);
+  }
+
+  /**
+   * Invalidates scope table of the top-level form containing changed element
+   */
+  public static void subtreeChanged(@Nullable PsiElement element) {
+    final PsiElement form = getTopLevelForm(element);
+    if (form != null) {
+      final FormModificationTracker tracker = form.getUserData(FORM_TRACKER_KEY);
+      if (tracker != null) {
+        tracker.myCount.incrementAndGet();
+      }
+    }
+  }
+
+  private static boolean processAll(PsiScopeProcessor processor, ClSymbol[] symbols) {
+    for (ClSymbol symbol : symbols) {
+      if (!ResolveUtil.processElement(processor, symbol)) return false;
+    }
+    return true;
+  }
+
+  @Nullable
+  private static PsiElement getTopLevelForm(@Nullable PsiElement element) {
+    while (element != null && !(element instanceof PsiFile)) {
+      final PsiElement parent = element.getParent();
+      if (parent instanceof PsiFile) return element;
+      element = parent;
+    }
+    return null;
+  }
+
+  @Nullable
+  private static ScopeTable getScopeTable(@NotNull ClVector vector) {
+    final PsiElement form = getTopLevelForm(vector);
+    if (form == null) return null;
+    return CachedValuesManager.getManager(form.getProject()).getCachedValue(form, SCOPE_TABLE_KEY,
+        new CachedValueProvider<ScopeTable>() {
+          public Result<ScopeTable> compute() {
+            // Non-physical files don't send PSI events, so their forms depend on the whole file
+            final Object dependency = form.isPhysical() && form instanceof UserDataHolderEx ?
+                getFormTracker((UserDataHolderEx) form) : form.getContainingFile();
+            return Result.create(new ScopeTable(), dependency);
+          }
+        }, false);
+  }
+
+  @NotNull
+  private static FormModificationTracker getFormTracker(@NotNull UserDataHolderEx form) {
+    final FormModificationTracker tracker = form.getUserData(FORM_TRACKER_KEY);
+    return tracker != null ? tracker : form.putUserDataIfAbsent(FORM_TRACKER_KEY, new FormModificationTracker());
+  }
+
+  private static class FormModificationTracker implements ModificationTracker {
+    private final AtomicLong myCount = new AtomicLong();
+
+    public long getModificationCount() {
+      return myCount.get();
+    }
+  }
+
+  private static class ScopeTable {
+    private final ConcurrentMap<ClVector, Bindings> myOddBindings = new ConcurrentHashMap<ClVector, Bindings>();
+    private final ConcurrentMap<ClVector, Bindings> myAllBindings = new ConcurrentHashMap<ClVector, Bindings>();
+
+    private Bindings getBindings(ClVector vector, boolean odd) {
+      final ConcurrentMap<ClVector, Bindings> map = odd ? myOddBindings : myAllBindings;
+      Bindings bindings = map.get(vector);
+      if (bindings == null) {
+        bindings = new Bindings(odd ? vector.getOddSymbols() : vector.getAllSymbols());
+        map.putIfAbsent(vector, bindings);
+      }
+      return bindings;
+    }
+  }
+
+  private static class Bindings {
+    private final ClSymbol[] mySymbols;
+    private final MultiMap<String, ClSymbol> myByName = new MultiMap<String, ClSymbol>();
+
+    private Bindings(ClSymbol[] symbols) {
+      mySymbols = symbols;
+      for (ClSymbol symbol : symbols) {
+        myByName.putValue(symbol.getName(), symbol);
+      }
+    }
+
+    private boolean process(PsiScopeProcessor processor) {
+      final String name = ResolveUtil.getExpectedName(processor);
+      if (name == null) return processAll(processor, mySymbols);
+      for (ClSymbol symbol : myByName.get(name)) {
+        if (!ResolveUtil.processElement(processor, symbol)) return false;
+      }
+      return true;
+    }
+  }
+}
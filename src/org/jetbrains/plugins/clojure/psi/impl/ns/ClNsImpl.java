@@ -5,6 +5,7 @@ import com.intellij.openapi.util.Condition;
 import com.intellij.psi.*;
 import com.intellij.psi.scope.PsiScopeProcessor;
 import com.intellij.psi.stubs.IStubElementType;
+import com.intellij.util.ArrayUtil;
 import com.intellij.util.IncorrectOperationException;
 import com.intellij.util.containers.ContainerUtil;
 import org.jetbrains.annotations.NonNls;
@@ -21,6 +22,10 @@ import org.jetbrains.plugins.clojure.psi.util.ClojureKeywords;
 import org.jetbrains.plugins.clojure.psi.util.ClojurePsiFactory;
 import org.jetbrains.plugins.clojure.psi.util.ClojurePsiUtil;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
 /**
  * @author ilyas
  */
@@ -75,6 +80,30 @@ public class ClNsImpl extends ClListBaseImpl<ClNsStub> implements ClNs, StubBase
     return "";
   }
 
+  @NotNull
+  public String[] getRequiredNamespaces() {
+    ClNsStub stub = getStub();
+    if (stub != null) {
+      return stub.getRequiredNamespaces();
+    }
+
+    final Set<String> namespaces = new LinkedHashSet<String>();
+    ImportOwner.collectDependencies(this, namespaces, new ArrayList<String>());
+    return ArrayUtil.toStringArray(namespaces);
+  }
+
+  @NotNull
+  public String[] getImportedClasses() {
+    ClNsStub stub = getStub();
+    if (stub != null) {
+      return stub.getImportedClasses();
+    }
+
+    final Set<String> classes = new LinkedHashSet<String>();
+    ImportOwner.collectDependencies(this, new ArrayList<String>(), classes);
+    return ArrayUtil.toStringArray(classes);
+  }
+
   public PsiElement setName(@NonNls String name) throws IncorrectOperationException {
     //todo implement me
     return this;
@@ -133,6 +162,40 @@ public class ClNsImpl extends ClListBaseImpl<ClNsStub> implements ClNs, StubBase
     return factory.findOrCreateJavaImportForClass(clazz, importClause);
   }
 
+  public ClList addRequireForNamespace(@NotNull String namespace) {
+    commitDocument();
+    final ClojurePsiFactory factory = ClojurePsiFactory.getInstance(getProject());
+    final ClList requires = findRequireClause();
+    if (requires != null) {
+      // insert after the last required namespace, so that a trailing comment stays in place
+      final ClList template = factory.createListFromText(ClojureKeywords.REQUIRE + " " + namespace);
+      final PsiElement symbol = template.getLastNonLeafElement();
+      assert symbol != null;
+      final PsiElement space = symbol.getPrevSibling();
+      final PsiElement last = requires.getLastNonLeafElement();
+      final PsiElement added = last != null ? requires.addAfter(symbol, last) : requires.addBefore(symbol, requires.getLastChild());
+      if (space instanceof PsiWhiteSpace) requires.addBefore(space, added);
+      return requires;
+    }
+
+    final ClSymbol first = getFirstSymbol();
+    final ClSymbol nsSymbol = getNameSymbol();
+    final PsiElement preamble = findGenClassPreamble();
+    final PsiElement anchor = (preamble != null ? preamble :
+        nsSymbol != null ? nsSymbol : first);
+    assert first != null;
+    return (ClList) addAfter(factory.createListFromText(ClojureKeywords.REQUIRE + " " + namespace), anchor);
+  }
+
+  @Nullable
+  private ClList findRequireClause() {
+    return (ClList) ContainerUtil.find(getChildren(), new Condition<PsiElement>() {
+      public boolean value(PsiElement psiElement) {
+        return psiElement instanceof ClList && ClojureKeywords.REQUIRE.equals(((ClList) psiElement).getHeadText());
+      }
+    });
+  }
+
   @NotNull
   protected ClList addFreshImportClause() {
     commitDocument();
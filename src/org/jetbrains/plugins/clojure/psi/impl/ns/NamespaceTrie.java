@@ -0,0 +1,68 @@
+package org.jetbrains.plugins.clojure.psi.impl.ns;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.util.containers.MultiMap;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.plugins.clojure.psi.impl.ClojurePsiManager;
+import org.jetbrains.plugins.clojure.psi.stubs.index.ClojureTopLevelNamesIndex;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Tree of namespace names, built from the namespace keys of {@link ClojureTopLevelNamesIndex}.
+ * Every namespace prefix is indexed, so each key is linked to its direct parent.
+ *
+ * @author ilyas
+ */
+public class NamespaceTrie {
+  private static final Key<CachedValue<NamespaceTrie>> NAMESPACE_TRIE_KEY = Key.create("clojure.namespace.trie");
+
+  private final MultiMap<String, String> myChildren = new MultiMap<String, String>();
+  private final Set<String> myNames = new HashSet<String>();
+
+  private NamespaceTrie(@NotNull Collection<String> namespaces) {
+    for (String fqn : namespaces) {
+      if (StringUtil.isNotEmpty(fqn)) {
+        myChildren.putValue(StringUtil.getPackageName(fqn), fqn);
+        myNames.add(fqn);
+      }
+    }
+  }
+
+  @NotNull
+  public static NamespaceTrie getInstance(@NotNull final Project project) {
+    return CachedValuesManager.getManager(project).getCachedValue(project, NAMESPACE_TRIE_KEY,
+        new CachedValueProvider<NamespaceTrie>() {
+          public Result<NamespaceTrie> compute() {
+            final Collection<String> keys = ClojureTopLevelNamesIndex.getNamespaceNames(project);
+            return Result.create(new NamespaceTrie(keys),
+                ClojurePsiManager.getInstance(project).getModificationTracker(),
+                ProjectRootManager.getInstance(project));
+          }
+        }, false);
+  }
+
+  /**
+   * @param fqn qualified name of namespace, empty string for the root
+   * @return qualified names of direct inner namespaces
+   */
+  @NotNull
+  public Collection<String> getChildren(@NotNull String fqn) {
+    return myChildren.get(fqn);
+  }
+
+  /**
+   * @return true if <code>fqn</code> is a namespace or a prefix of one
+   */
+  public boolean contains(@NotNull String fqn) {
+    return myNames.contains(fqn);
+  }
+}
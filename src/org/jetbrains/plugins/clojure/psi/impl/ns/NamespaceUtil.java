@@ -1,23 +1,38 @@
 package org.jetbrains.plugins.clojure.psi.impl.ns;
 
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.openapi.util.Key;
 import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.psi.*;
+import com.intellij.psi.impl.source.PsiFileImpl;
 import com.intellij.psi.scope.PsiScopeProcessor;
 import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.stubs.StubElement;
 import com.intellij.psi.stubs.StubIndex;
+import com.intellij.psi.stubs.StubTree;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.intellij.util.ArrayUtil;
+import com.intellij.util.containers.MultiMap;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.plugins.clojure.psi.api.ClojureFile;
 import org.jetbrains.plugins.clojure.psi.api.defs.ClDef;
 import org.jetbrains.plugins.clojure.psi.api.ns.ClNs;
+import org.jetbrains.plugins.clojure.psi.impl.ClojurePsiManager;
+import org.jetbrains.plugins.clojure.psi.impl.defs.ClProtocolMethod;
+import org.jetbrains.plugins.clojure.psi.stubs.api.ClDefStub;
 import org.jetbrains.plugins.clojure.psi.resolve.ResolveUtil;
+import org.jetbrains.plugins.clojure.psi.stubs.index.ClDefFqnIndex;
+import org.jetbrains.plugins.clojure.psi.stubs.index.ClojureNsImportIndex;
 import org.jetbrains.plugins.clojure.psi.stubs.index.ClojureNsNameIndex;
+import org.jetbrains.plugins.clojure.psi.stubs.index.ClojureNsRequireIndex;
+import org.jetbrains.plugins.clojure.psi.util.ClojurePsiUtil;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collection;
-import java.util.HashSet;
+import java.util.*;
 
 /**
  * @author ilyas
@@ -40,10 +55,29 @@ public class NamespaceUtil {
     for (ClNs ns : nses) {
       if (nsFqn.equals(ns.getName())) {
         final PsiFile file = ns.getContainingFile();
-        if (file instanceof ClojureFile) {
+        final int nsOffset = ns.getTextOffset();
+        final StubTree stubTree = file instanceof PsiFileImpl ? ((PsiFileImpl) file).getStubTree() : null;
+        if (stubTree != null) {
+          // Read names and offsets from stubs, so that library files are never parsed
+          for (StubElement<?> stub : stubTree.getPlainList()) {
+            if (stub instanceof ClDefStub) {
+              final ClDefStub defStub = (ClDefStub) stub;
+              if (StringUtil.isNotEmpty(defStub.getName()) && nsOffset < defStub.getTextOffset()) {
+                final ClDef def = defStub.getPsi();
+                result.add(def);
+                for (String method : defStub.getProtocolMethodNames()) {
+                  result.add(new ClProtocolMethod(def, method));
+                }
+              }
+            }
+          }
+        } else if (file instanceof ClojureFile) {
           for (ClDef elem : ((ClojureFile) file).getFileDefinitions()) {
-            if (StringUtil.isNotEmpty(elem.getName()) && ns.getTextOffset() < elem.getTextOffset()) {
+            if (StringUtil.isNotEmpty(elem.getName()) && nsOffset < elem.getTextOffset()) {
               result.add(elem);
+              for (String method : elem.getProtocolMethodNames()) {
+                result.add(new ClProtocolMethod(elem, method));
+              }
             }
           }
         }
@@ -52,19 +86,164 @@ public class NamespaceUtil {
     return result.toArray(PsiNamedElement.EMPTY_ARRAY);
   }
 
-  public static PsiNamedElement[] getDefaultDefinitions(@NotNull Project project) {
-    final ArrayList<PsiNamedElement> res = new ArrayList<PsiNamedElement>();
-    for (String ns : DEFAULT_NSES) {
-      res.addAll(Arrays.asList(getDeclaredElements(ns, project)));
+  /**
+   * @param name name of the element to look for, or null to get all elements of the namespace
+   * @return elements declared in namespace <code>nsFqn</code>
+   */
+  public static PsiNamedElement[] getDeclaredElements(@NotNull String nsFqn, @Nullable String name, @NotNull Project project) {
+    if (name == null) return getDeclaredElements(nsFqn, project);
+    final Collection<ClDef> defs = StubIndex.getInstance().get(ClDefFqnIndex.KEY, ClDefFqnIndex.fqn(nsFqn, name),
+        project, GlobalSearchScope.allScope(project));
+    return getDefinitionsNamed(defs, name);
+  }
+
+  /**
+   * @return definitions named <code>name</code>, with protocols replaced by their methods of that name.
+   * Protocol methods are taken from stubs, their symbols are loaded only on navigation.
+   */
+  public static PsiNamedElement[] getDefinitionsNamed(@NotNull Collection<ClDef> defs, @NotNull String name) {
+    final ArrayList<PsiNamedElement> result = new ArrayList<PsiNamedElement>();
+    for (ClDef def : defs) {
+      if (name.equals(def.getName())) {
+        result.add(def);
+      } else if (ArrayUtil.contains(name, def.getProtocolMethodNames())) {
+        result.add(new ClProtocolMethod(def, name));
+      }
+    }
+    return result.toArray(new PsiNamedElement[result.size()]);
+  }
+
+  /**
+   * @return namespaces required, used or referred by the ns forms of namespace <code>nsFqn</code>
+   */
+  @NotNull
+  public static Set<String> getRequiredNamespaces(@NotNull String nsFqn, @NotNull Project project) {
+    final Set<String> result = new LinkedHashSet<String>();
+    for (ClNs ns : StubIndex.getInstance().get(ClojureNsNameIndex.KEY, nsFqn, project, GlobalSearchScope.allScope(project))) {
+      if (nsFqn.equals(ns.getName())) {
+        result.addAll(Arrays.asList(ns.getRequiredNamespaces()));
+      }
     }
-    return res.toArray(PsiNamedElement.EMPTY_ARRAY);
+    return result;
+  }
+
+  /**
+   * @return qualified names of classes imported by the ns forms of namespace <code>nsFqn</code>
+   */
+  @NotNull
+  public static Set<String> getImportedClasses(@NotNull String nsFqn, @NotNull Project project) {
+    final Set<String> result = new LinkedHashSet<String>();
+    for (ClNs ns : StubIndex.getInstance().get(ClojureNsNameIndex.KEY, nsFqn, project, GlobalSearchScope.allScope(project))) {
+      if (nsFqn.equals(ns.getName())) {
+        result.addAll(Arrays.asList(ns.getImportedClasses()));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @return ns forms which require, use or refer namespace <code>nsFqn</code>
+   */
+  @NotNull
+  public static Collection<ClNs> getRequiringNamespaces(@NotNull String nsFqn, @NotNull Project project, @NotNull GlobalSearchScope scope) {
+    return StubIndex.getInstance().get(ClojureNsRequireIndex.KEY, nsFqn, project, scope);
+  }
+
+  /**
+   * @return ns forms which import class <code>classFqn</code>
+   */
+  @NotNull
+  public static Collection<ClNs> getImportingNamespaces(@NotNull String classFqn, @NotNull Project project, @NotNull GlobalSearchScope scope) {
+    return StubIndex.getInstance().get(ClojureNsImportIndex.KEY, classFqn, project, scope);
+  }
+
+  private static final Key<CachedValue<MultiMap<String, PsiNamedElement>>> DEFAULT_DEFINITIONS_KEY =
+      Key.create("clojure.default.definitions");
+
+  /**
+   * @param name name of definition to look for, or null to get all default definitions
+   * @return definitions from default namespaces, looked up in the project-wide export table
+   */
+  @NotNull
+  public static Collection<PsiNamedElement> getDefaultDefinitions(@NotNull Project project, @Nullable String name) {
+    final MultiMap<String, PsiNamedElement> table = getDefaultDefinitionsTable(project);
+    return name == null ? table.values() : table.get(name);
+  }
+
+  private static MultiMap<String, PsiNamedElement> getDefaultDefinitionsTable(@NotNull final Project project) {
+    return CachedValuesManager.getManager(project).getCachedValue(project, DEFAULT_DEFINITIONS_KEY,
+        new CachedValueProvider<MultiMap<String, PsiNamedElement>>() {
+          public Result<MultiMap<String, PsiNamedElement>> compute() {
+            final MultiMap<String, PsiNamedElement> table = new MultiMap<String, PsiNamedElement>();
+            for (String ns : DEFAULT_NSES) {
+              for (PsiNamedElement element : getDeclaredElements(ns, project)) {
+                table.putValue(element.getName(), element);
+              }
+            }
+            return Result.create(table, ClojurePsiManager.getInstance(project).getModificationTracker());
+          }
+        }, false);
+  }
+
+  private static final Key<CachedValue<ImplicitJavaDeclarations>> IMPLICIT_JAVA_DECLARATIONS_KEY =
+      Key.create("clojure.implicit.java.declarations");
+
+  /**
+   * Java declarations visible from any Clojure file without import, keyed by short name
+   */
+  private static class ImplicitJavaDeclarations {
+    private final MultiMap<String, PsiClass> javaLangClasses = new MultiMap<String, PsiClass>();
+    private final MultiMap<String, PsiClass> rootClasses = new MultiMap<String, PsiClass>();
+    private final MultiMap<String, ClSyntheticNamespace> topLevelPackages = new MultiMap<String, ClSyntheticNamespace>();
+  }
+
+  private static ImplicitJavaDeclarations getImplicitJavaDeclarations(@NotNull final Project project) {
+    return CachedValuesManager.getManager(project).getCachedValue(project, IMPLICIT_JAVA_DECLARATIONS_KEY,
+        new CachedValueProvider<ImplicitJavaDeclarations>() {
+          public Result<ImplicitJavaDeclarations> compute() {
+            final ImplicitJavaDeclarations declarations = new ImplicitJavaDeclarations();
+            final JavaPsiFacade facade = JavaPsiFacade.getInstance(project);
+            final GlobalSearchScope scope = GlobalSearchScope.allScope(project);
+            final PsiPackage javaLang = facade.findPackage(ClojurePsiUtil.JAVA_LANG);
+            if (javaLang != null) {
+              for (PsiClass clazz : javaLang.getClasses(scope)) {
+                declarations.javaLangClasses.putValue(clazz.getName(), clazz);
+              }
+            }
+            final PsiPackage rootPackage = facade.findPackage("");
+            if (rootPackage != null) {
+              for (PsiClass clazz : rootPackage.getClasses(scope)) {
+                declarations.rootClasses.putValue(clazz.getName(), clazz);
+              }
+              for (PsiPackage pack : rootPackage.getSubPackages(scope)) {
+                declarations.topLevelPackages.putValue(pack.getName(), getNamespaceElement(pack));
+              }
+            }
+            return Result.create(declarations, ProjectRootManager.getInstance(project),
+                PsiModificationTracker.JAVA_STRUCTURE_MODIFICATION_COUNT);
+          }
+        }, false);
+  }
+
+  private static <T> Collection<T> getByName(@NotNull MultiMap<String, T> table, @Nullable String name) {
+    return name == null ? table.values() : table.get(name);
+  }
+
+  /**
+   * @param name short name of class to look for, or null to get all classes
+   * @return classes of <code>java.lang</code>, cached per project
+   */
+  @NotNull
+  public static Collection<PsiClass> getJavaLangClasses(@NotNull Project project, @Nullable String name) {
+    return getByName(getImplicitJavaDeclarations(project).javaLangClasses, name);
   }
 
   public static ClSyntheticNamespace[] getTopLevelNamespaces(@NotNull Project project) {
     ArrayList<ClSyntheticNamespace> result = new ArrayList<ClSyntheticNamespace>();
-    for (String fqn : StubIndex.getInstance().getAllKeys(ClojureNsNameIndex.KEY, project)) {
-      if (!fqn.contains(".")) {
-        result.add(getNamespace(fqn, project));
+    for (String fqn : NamespaceTrie.getInstance(project).getChildren("")) {
+      final ClSyntheticNamespace namespace = getNamespace(fqn, project);
+      if (namespace != null) {
+        result.add(namespace);
       }
     }
     return result.toArray(new ClSyntheticNamespace[result.size()]);
@@ -72,23 +251,17 @@ public class NamespaceUtil {
 
   @Nullable
   public static ClSyntheticNamespace getNamespace(@NotNull String fqn, @NotNull final Project project) {
-    final Collection<ClNs> nsWithPrefix = StubIndex.getInstance().get(ClojureNsNameIndex.KEY, fqn, project, GlobalSearchScope.allScope(project));
-    if (!nsWithPrefix.isEmpty()) {
-      final ClNs ns = nsWithPrefix.iterator().next();
-      final String nsName = ns.getName();
-      assert nsName != null;
-      final String synthName = nsName.equals(fqn) ? nsName : fqn;
-      final String refName = StringUtil.getShortName(synthName);
-
-      ClNs navigationElement = null;
-      for (ClNs clNs : nsWithPrefix) {
-        if (fqn.equals(clNs.getName())) {
-          navigationElement = clNs;
-        }
+    // the stub index has exact namespace names only, prefixes like "clojure" are known to the trie
+    final Collection<ClNs> nses = StubIndex.getInstance().get(ClojureNsNameIndex.KEY, fqn, project, GlobalSearchScope.allScope(project));
+    if (nses.isEmpty() && !NamespaceTrie.getInstance(project).contains(fqn)) return null;
+
+    ClNs navigationElement = null;
+    for (ClNs clNs : nses) {
+      if (fqn.equals(clNs.getName())) {
+        navigationElement = clNs;
       }
-      return new MyClSyntheticNamespace(project, refName, synthName, navigationElement);
     }
-    return null;
+    return new MyClSyntheticNamespace(project, StringUtil.getShortName(fqn), fqn, navigationElement);
   }
 
   private static class MyClSyntheticNamespace extends ClSyntheticNamespace {
@@ -118,27 +291,38 @@ public class NamespaceUtil {
       final HashSet<String> innerNamespaces = new HashSet<String>();
 
       // Add inner namespaces
-      final String outerName = getQualifiedName();
-      for (String fqn : StubIndex.getInstance().getAllKeys(ClojureNsNameIndex.KEY, project)) {
-        if (fqn.startsWith(outerName) && !fqn.equals(outerName) &&
-                !StringUtil.trimStart(fqn, outerName + ".").contains(".")) {
-          final ClSyntheticNamespace inner = getNamespace(fqn, project);
-          innerNamespaces.add(fqn);
-          if (!ResolveUtil.processElement(processor, inner)) {
-            return false;
-          }
-
+      final String expectedName = ResolveUtil.getExpectedName(processor);
+      for (String fqn : NamespaceTrie.getInstance(project).getChildren(getQualifiedName())) {
+        if (expectedName != null && !expectedName.equals(StringUtil.getShortName(fqn))) continue;
+        final ClSyntheticNamespace inner = getNamespace(fqn, project);
+        innerNamespaces.add(fqn);
+        if (!ResolveUtil.processElement(processor, inner)) {
+          return false;
         }
       }
 
       // Add declared elements
-      for (PsiNamedElement element : getDeclaredElements(getQualifiedName(), getProject())) {
+      for (PsiNamedElement element : getDeclaredElements(getQualifiedName(), expectedName, getProject())) {
         if (!ResolveUtil.processElement(processor, element)) {
           return false;
         }
       }
 
       final String qualifiedName = getQualifiedName();
+      if (qualifiedName.length() == 0) {
+        // Root package contents are huge, so they are taken from the project-wide table
+        final ImplicitJavaDeclarations declarations = getImplicitJavaDeclarations(project);
+        for (PsiClass clazz : getByName(declarations.rootClasses, expectedName)) {
+          if (!ResolveUtil.processElement(processor, clazz)) return false;
+        }
+        for (ClSyntheticNamespace pack : getByName(declarations.topLevelPackages, expectedName)) {
+          if (!innerNamespaces.contains(pack.getQualifiedName()) && !ResolveUtil.processElement(processor, pack)) {
+            return false;
+          }
+        }
+        return true;
+      }
+
       final PsiPackage aPackage = JavaPsiFacade.getInstance(getProject()).findPackage(qualifiedName);
       if (aPackage != null) {
         for (PsiClass clazz : aPackage.getClasses(place.getResolveScope())) {
@@ -160,4 +344,11 @@ public class NamespaceUtil {
   public static ClSyntheticNamespace getNamespaceElement(PsiPackage pack) {
     return new MyClSyntheticNamespace(pack.getProject(), pack.getName(), pack.getQualifiedName(), null);
   }
+
+  /**
+   * @return namespace element for <code>fqn</code>, the empty name stands for the root namespace
+   */
+  public static ClSyntheticNamespace getNamespaceElement(@NotNull String fqn, @NotNull Project project) {
+    return new MyClSyntheticNamespace(project, StringUtil.getShortName(fqn), fqn, null);
+  }
 }
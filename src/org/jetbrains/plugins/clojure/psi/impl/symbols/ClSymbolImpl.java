@@ -6,7 +6,6 @@ import com.intellij.openapi.application.Application;
 import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.editor.colors.TextAttributesKey;
 import com.intellij.openapi.project.Project;
-import com.intellij.openapi.util.Condition;
 import com.intellij.openapi.util.Iconable;
 import com.intellij.openapi.util.TextRange;
 import com.intellij.openapi.util.text.StringUtil;
@@ -15,12 +14,7 @@ import com.intellij.psi.impl.source.resolve.ResolveCache;
 import com.intellij.psi.search.GlobalSearchScope;
 import com.intellij.psi.stubs.StubIndex;
 import com.intellij.psi.tree.IElementType;
-import com.intellij.psi.util.MethodSignature;
-import com.intellij.util.Function;
 import com.intellij.util.IncorrectOperationException;
-import com.intellij.util.containers.ContainerUtil;
-import com.intellij.util.containers.HashMap;
-import com.intellij.util.containers.HashSet;
 import org.jetbrains.annotations.NonNls;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -32,14 +26,16 @@ import org.jetbrains.plugins.clojure.psi.api.*;
 import org.jetbrains.plugins.clojure.psi.api.ns.ClNs;
 import org.jetbrains.plugins.clojure.psi.api.symbols.ClSymbol;
 import org.jetbrains.plugins.clojure.psi.impl.ImportOwner;
+import org.jetbrains.plugins.clojure.psi.impl.defs.ClProtocolMethod;
 import org.jetbrains.plugins.clojure.psi.impl.list.ListDeclarations;
 import org.jetbrains.plugins.clojure.psi.impl.ns.ClSyntheticNamespace;
 import org.jetbrains.plugins.clojure.psi.impl.ns.NamespaceUtil;
+import org.jetbrains.plugins.clojure.psi.resolve.ClojureFileResolver;
 import org.jetbrains.plugins.clojure.psi.resolve.ClojureResolveResult;
 import org.jetbrains.plugins.clojure.psi.resolve.ClojureResolveResultImpl;
 import org.jetbrains.plugins.clojure.psi.resolve.ResolveUtil;
+import org.jetbrains.plugins.clojure.psi.resolve.completion.AvailableJavaMethods;
 import org.jetbrains.plugins.clojure.psi.resolve.completion.CompleteSymbol;
-import org.jetbrains.plugins.clojure.psi.resolve.completion.CompletionProcessor;
 import org.jetbrains.plugins.clojure.psi.resolve.processors.ResolveKind;
 import org.jetbrains.plugins.clojure.psi.resolve.processors.ResolveProcessor;
 import org.jetbrains.plugins.clojure.psi.resolve.processors.SymbolResolveProcessor;
@@ -49,12 +45,17 @@ import org.jetbrains.plugins.clojure.psi.util.ClojurePsiFactory;
 
 import javax.swing.*;
 import java.util.Collection;
-import java.util.List;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
 
 /**
  * @author ilyas
  */
 public class ClSymbolImpl extends ClojurePsiElementImpl implements ClSymbol {
+  private volatile PsiReference[] myReferences;
+  private volatile ResolveTargets myResolveTargets;
+
   public ClSymbolImpl(ASTNode node) {
     super(node);
   }
@@ -62,8 +63,11 @@ public class ClSymbolImpl extends ClojurePsiElementImpl implements ClSymbol {
   @NotNull
   @Override
   public PsiReference[] getReferences() {
-    PsiReference fakeClassReference = new MyFakeClassPsiReference();
-    PsiReference[] refs = {this, fakeClassReference};
+    PsiReference[] refs = myReferences;
+    if (refs == null) {
+      refs = new PsiReference[]{this, new MyFakeClassPsiReference()};
+      myReferences = refs;
+    }
     return refs;
   }
 
@@ -172,6 +176,10 @@ public class ClSymbolImpl extends ClojurePsiElementImpl implements ClSymbol {
         return resolveJavaMethodReference(symbol, null, false);
       }
 
+      // Local bindings found by the file-wide pass
+      final ClojureResolveResult[] local = ClojureFileResolver.resolveLocal(symbol);
+      if (local != null) return local;
+
       ResolveKind[] kinds = symbol.getKinds();
       if (nameString.endsWith(".")) {
         kinds = ResolveKind.javaClassesKinds();
@@ -191,30 +199,22 @@ public class ClSymbolImpl extends ClojurePsiElementImpl implements ClSymbol {
     }
 
     public static ResolveResult[] resolveJavaMethodReference(final ClSymbol symbol, @Nullable PsiElement start, final boolean forCompletion) {
-      final CompletionProcessor processor = new CompletionProcessor(symbol, symbol.getKinds());
       if (start == null) start = symbol;
-      ResolveUtil.treeWalkUp(start, processor);
+      final PsiFile file = start.getContainingFile();
+      if (file == null) return ClojureResolveResult.EMPTY_ARRAY;
       final String name = symbol.getReferenceName();
       assert name != null;
 
       final String originalName = StringUtil.trimStart(name, ".");
-      final PsiElement[] elements = ResolveUtil.mapToElements(processor.getCandidates());
-      final HashMap<MethodSignature, HashSet<PsiMethod>> sig2Method = CompleteSymbol.collectAvailableMethods(elements);
-      final List<MethodSignature> goodSignatures = ContainerUtil.findAll(sig2Method.keySet(), new Condition<MethodSignature>() {
-        public boolean value(MethodSignature methodSignature) {
-          return forCompletion || originalName.equals(methodSignature.getName());
-        }
-      });
+      final AvailableJavaMethods methods = AvailableJavaMethods.getInstance(file);
+      final Collection<PsiMethod> candidates = forCompletion ? methods.getAllMethods() : methods.getMethods(originalName);
 
-      final HashSet<ClojureResolveResult> results = new HashSet<ClojureResolveResult>();
-      for (MethodSignature signature : goodSignatures) {
-        final HashSet<PsiMethod> methodSet = sig2Method.get(signature);
-        for (PsiMethod method : methodSet) {
-          results.add(new ClojureResolveResultImpl(method, true));
-        }
+      final ClojureResolveResult[] results = new ClojureResolveResult[candidates.size()];
+      int i = 0;
+      for (PsiMethod method : candidates) {
+        results[i++] = new ClojureResolveResultImpl(method, true);
       }
-
-      return results.toArray(new ClojureResolveResult[results.size()]);
+      return results;
     }
 
     private void resolveImpl(ClSymbol symbol, ResolveProcessor processor) {
@@ -222,7 +222,7 @@ public class ClSymbolImpl extends ClojurePsiElementImpl implements ClSymbol {
 
       //process other places
       if (qualifier == null) {
-        ResolveUtil.treeWalkUp(symbol, processor);
+        ClojureFileResolver.treeWalkUp(symbol, processor);
       } else {
         for (ResolveResult result : qualifier.multiResolve(false)) {
           final PsiElement element = result.getElement();
@@ -238,8 +238,9 @@ public class ClSymbolImpl extends ClojurePsiElementImpl implements ClSymbol {
               //get namespace declarations
               if (element instanceof ClSyntheticNamespace) {
                 final String fqn = ((ClSyntheticNamespace) element).getQualifiedName();
-                // namespace declarations
-                for (PsiNamedElement named : NamespaceUtil.getDeclaredElements(fqn, element.getProject())) {
+                // namespace declarations, looked up by ns/name when the name is known
+                final String name = ResolveUtil.getExpectedName(processor);
+                for (PsiNamedElement named : NamespaceUtil.getDeclaredElements(fqn, name, element.getProject())) {
                   if (!ResolveUtil.processElement(processor, named)) return;
                 }
               }
@@ -375,14 +376,42 @@ public class ClSymbolImpl extends ClojurePsiElementImpl implements ClSymbol {
     return getText();
   }
 
-  private List<PsiElement> multipleResolveResults() {
-    final ResolveCache resolveCache = ResolveCache.getInstance(getProject());
-    final ResolveResult[] results = resolveCache.resolveWithCaching(this, RESOLVER, false, false);
-    return ContainerUtil.map(results, new Function<ResolveResult, PsiElement>() {
-      public PsiElement fun(ResolveResult resolveResult) {
-        return resolveResult.getElement();
+  /**
+   * Resolve targets, which are valid until the next PSI modification
+   */
+  private static class ResolveTargets {
+    private final long myModificationCount;
+    private final Set<PsiElement> myElements;
+    private final PsiClass myClass;
+
+    private ResolveTargets(long modificationCount, Set<PsiElement> elements, PsiClass clazz) {
+      myModificationCount = modificationCount;
+      myElements = elements;
+      myClass = clazz;
+    }
+  }
+
+  private ResolveTargets getResolveTargets() {
+    final long modificationCount = getManager().getModificationTracker().getModificationCount();
+    ResolveTargets targets = myResolveTargets;
+    if (targets == null || targets.myModificationCount != modificationCount) {
+      final ResolveCache resolveCache = ResolveCache.getInstance(getProject());
+      final ResolveResult[] results = resolveCache.resolveWithCaching(this, RESOLVER, false, false);
+      final Set<PsiElement> elements = Collections.newSetFromMap(new IdentityHashMap<PsiElement, Boolean>());
+      PsiClass clazz = null;
+      for (ResolveResult result : results) {
+        final PsiElement element = result.getElement();
+        if (element != null) {
+          elements.add(element);
+          if (clazz == null && element instanceof PsiClass) {
+            clazz = (PsiClass) element;
+          }
+        }
       }
-    });
+      targets = new ResolveTargets(modificationCount, elements, clazz);
+      myResolveTargets = targets;
+    }
+    return targets;
   }
 
   public PsiElement handleElementRename(String newElementName) throws IncorrectOperationException {
@@ -415,7 +444,13 @@ public class ClSymbolImpl extends ClojurePsiElementImpl implements ClSymbol {
   }
 
   public boolean isReferenceTo(PsiElement element) {
-    return multipleResolveResults().contains(element);
+    final Set<PsiElement> targets = getResolveTargets().myElements;
+    if (targets.contains(element)) return true;
+    // protocol methods are light elements, created anew by every resolve
+    for (PsiElement target : targets) {
+      if (target instanceof ClProtocolMethod && target.isEquivalentTo(element)) return true;
+    }
+    return false;
   }
 
   @NotNull
@@ -442,12 +477,7 @@ public class ClSymbolImpl extends ClojurePsiElementImpl implements ClSymbol {
     }
 
     public PsiElement resolve() {
-      for (PsiElement element : multipleResolveResults()) {
-        if (element instanceof PsiClass) {
-          return element;
-        }
-      }
-      return null;
+      return getResolveTargets().myClass;
     }
 
     @NotNull
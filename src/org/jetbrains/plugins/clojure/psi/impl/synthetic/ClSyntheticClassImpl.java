@@ -3,22 +3,27 @@ package org.jetbrains.plugins.clojure.psi.impl.synthetic;
 import org.jetbrains.plugins.clojure.psi.api.synthetic.ClSyntheticClass;
 import org.jetbrains.plugins.clojure.psi.api.ClojureFile;
 import org.jetbrains.plugins.clojure.psi.api.ClList;
-import org.jetbrains.plugins.clojure.psi.api.ClVector;
-import org.jetbrains.plugins.clojure.psi.api.symbols.ClSymbol;
-import org.jetbrains.plugins.clojure.psi.util.ClojureKeywords;
-import org.jetbrains.plugins.clojure.psi.util.ClojurePsiUtil;
-import org.jetbrains.plugins.clojure.psi.impl.ClKeywordImpl;
+import org.jetbrains.plugins.clojure.psi.stubs.api.ClFileStub;
 import org.jetbrains.plugins.clojure.file.ClojureFileType;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.NonNls;
 import org.jetbrains.annotations.Nullable;
 import com.intellij.psi.impl.light.LightElement;
 import com.intellij.psi.impl.InheritanceImplUtil;
+import com.intellij.psi.impl.source.PsiFileImpl;
+import com.intellij.psi.stubs.StubElement;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
 import com.intellij.psi.*;
 import com.intellij.psi.scope.PsiScopeProcessor;
 import com.intellij.psi.search.GlobalSearchScope;
 import com.intellij.psi.javadoc.PsiDocComment;
 import com.intellij.util.IncorrectOperationException;
+import com.intellij.util.io.StringRef;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.util.Key;
 import com.intellij.openapi.util.Pair;
 import com.intellij.openapi.editor.colors.TextAttributesKey;
 import com.intellij.navigation.ItemPresentation;
@@ -35,6 +40,8 @@ import java.util.Arrays;
  *         Class to represent bytecode-compiled clojure files
  */
 public class ClSyntheticClassImpl extends LightElement implements ClSyntheticClass {
+  private static final Logger LOG = Logger.getInstance("org.jetbrains.plugins.clojure.psi.impl.synthetic.ClSyntheticClassImpl");
+  private static final Key<CachedValue<Members>> MEMBERS_KEY = Key.create("clojure.synthetic.class.members");
 
   @Override
   public PsiElement getNavigationElement() {
@@ -63,7 +70,6 @@ public class ClSyntheticClassImpl extends LightElement implements ClSyntheticCla
     super(file.getManager(), ClojureFileType.CLOJURE_LANGUAGE);
     myFile = file;
     assert myFile.isClassDefiningFile();
-    assert myFile.getNamespaceElement() != null;
     cachesNames();
   }
 
@@ -163,45 +169,58 @@ public class ClSyntheticClassImpl extends LightElement implements ClSyntheticCla
   }
 
   public PsiClass getSuperClass() {
-    final ClList ns = getNsElement();
-    final ClKeywordImpl key = ClojurePsiUtil.findNamespaceKeyByName(ns, ClojureKeywords.EXTENDS);
-    if (key != null) {
-      final PsiElement next = ClojurePsiUtil.getNextNonWhiteSpace(key);
-      if (next instanceof ClSymbol) {
-        ClSymbol symbol = (ClSymbol) next;
-        final PsiClass psiClass = JavaPsiFacade.getInstance(getProject()).findClass(symbol.getText(), GlobalSearchScope.allScope(getProject()));
-        return psiClass;
-      }
-    }
-    return null;
+    final String name = getSuperClassName();
+    if (name == null) return null;
+    return JavaPsiFacade.getInstance(getProject()).findClass(name, GlobalSearchScope.allScope(getProject()));
   }
 
-  @NotNull
+  @Nullable
   private ClList getNsElement() {
     return myFile.getNamespaceElement();
   }
 
+  /**
+   * @return stub of the file if its AST is not loaded, the shape of gen-class is read from it then
+   */
+  @Nullable
+  private ClFileStub getFileStub() {
+    final StubElement stub = myFile instanceof PsiFileImpl ? ((PsiFileImpl) myFile).getStub() : null;
+    return stub instanceof ClFileStub ? (ClFileStub) stub : null;
+  }
+
+  @Nullable
+  private String getSuperClassName() {
+    final ClFileStub stub = getFileStub();
+    return stub != null ? StringRef.toString(stub.getSuperClassName()) : SynteticUtil.getGenClassSuperName(getNsElement());
+  }
+
+  @NotNull
+  private String[] getInterfaceNames() {
+    final ClFileStub stub = getFileStub();
+    return stub != null ? stub.getInterfaceNames() : SynteticUtil.getGenClassInterfaceNames(getNsElement());
+  }
+
+  @NotNull
+  private String[] getMethodSignatures() {
+    final ClFileStub stub = getFileStub();
+    return stub != null ? stub.getMethodSignatures() : SynteticUtil.getGenClassMethodSignatures(getNsElement());
+  }
+
+  @Nullable
+  private String getStateName() {
+    final ClFileStub stub = getFileStub();
+    return stub != null ? StringRef.toString(stub.getStateName()) : SynteticUtil.getGenClassStateName(getNsElement());
+  }
+
   public PsiClass[] getInterfaces() {
-    final ClList ns = getNsElement();
-    final ClKeywordImpl key = ClojurePsiUtil.findNamespaceKeyByName(ns, ClojureKeywords.IMPLEMENTS);
     final ArrayList<PsiClass> classes = new ArrayList<PsiClass>();
     final GlobalSearchScope scope = GlobalSearchScope.allScope(getProject());
     final JavaPsiFacade facade = JavaPsiFacade.getInstance(getProject());
-    if (key != null) {
-      final PsiElement next = ClojurePsiUtil.getNextNonWhiteSpace(key);
-      if (next instanceof ClVector) {
-        ClVector vector = (ClVector) next;
-        for (PsiElement element : vector.getChildren()) {
-          if (element instanceof ClSymbol) {
-            ClSymbol symbol = (ClSymbol) element;
-            final PsiClass clazz = facade.findClass(symbol.getText(), scope);
-            if (clazz != null)  classes.add(clazz);
-          }
-        }
-        return classes.toArray(PsiClass.EMPTY_ARRAY);
-      }
+    for (String name : getInterfaceNames()) {
+      final PsiClass clazz = facade.findClass(name, scope);
+      if (clazz != null) classes.add(clazz);
     }
-    return new PsiClass[0];
+    return classes.toArray(PsiClass.EMPTY_ARRAY);
   }
 
   @NotNull
@@ -236,28 +255,78 @@ public class ClSyntheticClassImpl extends LightElement implements ClSyntheticCla
 
   @NotNull
   public PsiField[] getFields() {
-    final ArrayList<PsiField> list = new ArrayList<PsiField>();
-    final PsiClass psiClass = getSuperClass();
-    if (psiClass != null) {
-      list.addAll(Arrays.asList(psiClass.getAllFields()));
-    }
-    for (PsiClass aClass : getInterfaces()) {
-      list.addAll(Arrays.asList(aClass.getFields()));
-    }
-    return list.toArray(new PsiField[list.size()]);
+    return getMembers().fields;
   }
 
   @NotNull
   public PsiMethod[] getMethods() {
+    return getMembers().methods;
+  }
+
+  @NotNull
+  public PsiMethod[] getGenClassMethods() {
+    return getMembers().genClassMethods;
+  }
+
+  @NotNull
+  public PsiField[] getGenClassFields() {
+    return getMembers().genClassFields;
+  }
+
+  /**
+   * Members are computed once per change of the file or of Java structure, which super classes are part of
+   */
+  private Members getMembers() {
+    return CachedValuesManager.getManager(getProject()).getCachedValue(this, MEMBERS_KEY, new CachedValueProvider<Members>() {
+      public Result<Members> compute() {
+        return Result.create(computeMembers(), myFile, PsiModificationTracker.JAVA_STRUCTURE_MODIFICATION_COUNT);
+      }
+    }, false);
+  }
+
+  private Members computeMembers() {
+    final PsiElementFactory factory = JavaPsiFacade.getInstance(getProject()).getElementFactory();
+    final ArrayList<PsiField> fields = new ArrayList<PsiField>();
     final ArrayList<PsiMethod> methods = new ArrayList<PsiMethod>();
+    try {
+      final String stateName = getStateName();
+      if (stateName != null) {
+        fields.add(factory.createFieldFromText("public final java.lang.Object " + stateName + ";", this));
+      }
+      for (String signature : getMethodSignatures()) {
+        methods.add(factory.createMethodFromText("public " + signature + " {}", this));
+      }
+    } catch (IncorrectOperationException e) {
+      LOG.info(e);
+    }
+    final PsiField[] genClassFields = fields.toArray(new PsiField[fields.size()]);
+    final PsiMethod[] genClassMethods = methods.toArray(new PsiMethod[methods.size()]);
+
     final PsiClass psiClass = getSuperClass();
     if (psiClass != null) {
+      fields.addAll(Arrays.asList(psiClass.getAllFields()));
       methods.addAll(Arrays.asList(psiClass.getAllMethods()));
     }
     for (PsiClass iface : getInterfaces()) {
+      fields.addAll(Arrays.asList(iface.getFields()));
       methods.addAll(Arrays.asList(iface.getMethods()));
     }
-    return methods.toArray(new PsiMethod[methods.size()]);
+    return new Members(fields.toArray(new PsiField[fields.size()]), methods.toArray(new PsiMethod[methods.size()]),
+        genClassFields, genClassMethods);
+  }
+
+  private static class Members {
+    private final PsiField[] fields;
+    private final PsiMethod[] methods;
+    private final PsiField[] genClassFields;
+    private final PsiMethod[] genClassMethods;
+
+    private Members(PsiField[] fields, PsiMethod[] methods, PsiField[] genClassFields, PsiMethod[] genClassMethods) {
+      this.fields = fields;
+      this.methods = methods;
+      this.genClassFields = genClassFields;
+      this.genClassMethods = genClassMethods;
+    }
   }
 
   @NotNull
@@ -291,6 +360,9 @@ public class ClSyntheticClassImpl extends LightElement implements ClSyntheticCla
   }
 
   public PsiField findFieldByName(@NonNls String s, boolean b) {
+    for (PsiField field : getFields()) {
+      if (s.equals(field.getName())) return field;
+    }
     return null;
   }
 
@@ -305,7 +377,11 @@ public class ClSyntheticClassImpl extends LightElement implements ClSyntheticCla
 
   @NotNull
   public PsiMethod[] findMethodsByName(@NonNls String s, boolean b) {
-    return new PsiMethod[0];
+    final ArrayList<PsiMethod> result = new ArrayList<PsiMethod>();
+    for (PsiMethod method : getMethods()) {
+      if (s.equals(method.getName())) result.add(method);
+    }
+    return result.toArray(PsiMethod.EMPTY_ARRAY);
   }
 
   @NotNull
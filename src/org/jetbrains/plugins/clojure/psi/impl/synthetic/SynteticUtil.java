@@ -1,12 +1,123 @@
 package org.jetbrains.plugins.clojure.psi.impl.synthetic;
 
+import com.intellij.psi.PsiElement;
+import com.intellij.util.ArrayUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.plugins.clojure.psi.api.ClList;
+import org.jetbrains.plugins.clojure.psi.api.ClVector;
 import org.jetbrains.plugins.clojure.psi.api.defs.ClDef;
+import org.jetbrains.plugins.clojure.psi.api.symbols.ClSymbol;
+import org.jetbrains.plugins.clojure.psi.impl.ClKeywordImpl;
+import org.jetbrains.plugins.clojure.psi.util.ClojureKeywords;
+import org.jetbrains.plugins.clojure.psi.util.ClojurePsiUtil;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * @author ilyas
  */
 public abstract class SynteticUtil {
+  private static final String OBJECT = "java.lang.Object";
+
   public static String getJavaMethodByDef(ClDef def) {
     return "public static void main";
   }
+
+  /**
+   * @return class name after <code>:extends</code> of gen-class
+   */
+  @Nullable
+  public static String getGenClassSuperName(@Nullable ClList ns) {
+    final ClSymbol symbol = getSymbolAfterKey(ns, ClojureKeywords.EXTENDS);
+    return symbol == null ? null : symbol.getText();
+  }
+
+  /**
+   * @return state field name after <code>:state</code> of gen-class
+   */
+  @Nullable
+  public static String getGenClassStateName(@Nullable ClList ns) {
+    final ClSymbol symbol = getSymbolAfterKey(ns, ClojureKeywords.STATE);
+    return symbol == null ? null : symbol.getText();
+  }
+
+  /**
+   * @return class names in the vector after <code>:implements</code> of gen-class
+   */
+  @NotNull
+  public static String[] getGenClassInterfaceNames(@Nullable ClList ns) {
+    final ClVector vector = getVectorAfterKey(ns, ClojureKeywords.IMPLEMENTS);
+    if (vector == null) return ArrayUtil.EMPTY_STRING_ARRAY;
+    final List<String> names = new ArrayList<String>();
+    for (PsiElement element : vector.getChildren()) {
+      if (element instanceof ClSymbol) {
+        names.add(element.getText());
+      }
+    }
+    return ArrayUtil.toStringArray(names);
+  }
+
+  /**
+   * Converts <code>:methods [[name [ParamType ...] ReturnType] ...]</code> of gen-class
+   * to Java method headers, e.g. <code>ReturnType name(ParamType p0)</code>
+   */
+  @NotNull
+  public static String[] getGenClassMethodSignatures(@Nullable ClList ns) {
+    final ClVector vector = getVectorAfterKey(ns, ClojureKeywords.METHODS);
+    if (vector == null) return ArrayUtil.EMPTY_STRING_ARRAY;
+    final List<String> signatures = new ArrayList<String>();
+    for (PsiElement element : vector.getChildren()) {
+      if (element instanceof ClVector) {
+        final String signature = getMethodSignature((ClVector) element);
+        if (signature != null) signatures.add(signature);
+      }
+    }
+    return ArrayUtil.toStringArray(signatures);
+  }
+
+  /**
+   * @return method name of a header built by {@link #getGenClassMethodSignatures(ClList)}
+   */
+  @NotNull
+  public static String getMethodName(@NotNull String signature) {
+    final int paren = signature.indexOf('(');
+    final int end = paren < 0 ? signature.length() : paren;
+    return signature.substring(signature.lastIndexOf(' ', end) + 1, end);
+  }
+
+  @Nullable
+  private static String getMethodSignature(ClVector method) {
+    final PsiElement[] parts = method.getChildren();
+    if (parts.length < 2 || !(parts[0] instanceof ClSymbol) || !(parts[1] instanceof ClVector)) return null;
+    final String returnType = parts.length > 2 && parts[2] instanceof ClSymbol ? parts[2].getText() : OBJECT;
+    final StringBuilder builder = new StringBuilder();
+    builder.append(returnType).append(' ').append(parts[0].getText()).append('(');
+    int i = 0;
+    for (PsiElement param : parts[1].getChildren()) {
+      if (i > 0) builder.append(", ");
+      builder.append(param instanceof ClSymbol ? param.getText() : OBJECT).append(" p").append(i++);
+    }
+    return builder.append(')').toString();
+  }
+
+  @Nullable
+  private static ClSymbol getSymbolAfterKey(@Nullable ClList ns, String keyName) {
+    final PsiElement next = getElementAfterKey(ns, keyName);
+    return next instanceof ClSymbol ? (ClSymbol) next : null;
+  }
+
+  @Nullable
+  private static ClVector getVectorAfterKey(@Nullable ClList ns, String keyName) {
+    final PsiElement next = getElementAfterKey(ns, keyName);
+    return next instanceof ClVector ? (ClVector) next : null;
+  }
+
+  @Nullable
+  private static PsiElement getElementAfterKey(@Nullable ClList ns, String keyName) {
+    if (ns == null) return null;
+    final ClKeywordImpl key = ClojurePsiUtil.findNamespaceKeyByName(ns, keyName);
+    return key == null ? null : ClojurePsiUtil.getNextNonWhiteSpace(key);
+  }
 }
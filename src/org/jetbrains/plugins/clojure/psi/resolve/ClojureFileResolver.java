@@ -0,0 +1,157 @@
+package org.jetbrains.plugins.clojure.psi.resolve;
+
+import com.intellij.openapi.util.Key;
+import com.intellij.psi.*;
+import com.intellij.psi.impl.source.tree.LeafPsiElement;
+import com.intellij.psi.scope.BaseScopeProcessor;
+import com.intellij.psi.scope.PsiScopeProcessor;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.plugins.clojure.psi.api.ClList;
+import org.jetbrains.plugins.clojure.psi.api.ClojureFile;
+import org.jetbrains.plugins.clojure.psi.api.defs.ClDef;
+import org.jetbrains.plugins.clojure.psi.api.ns.ClNs;
+import org.jetbrains.plugins.clojure.psi.api.symbols.ClSymbol;
+import org.jetbrains.plugins.clojure.psi.impl.list.ListDeclarations;
+
+import java.util.*;
+
+/**
+ * Resolves unqualified symbols of a whole file in one top-down pass.
+ * Local bindings are tracked on a scope stack built by the same rules as {@link ListDeclarations}
+ * and {@link ClDef#processDeclarations}, so each symbol either gets its local binding
+ * or is known to be resolved at the file level, without walking up its ancestors.
+ *
+ * @author ilyas
+ */
+public class ClojureFileResolver {
+  private static final Key<CachedValue<ClojureFileResolver>> FILE_RESOLVER_KEY = Key.create("clojure.file.resolver");
+
+  private final Map<ClSymbol, PsiNamedElement> myLocals = new HashMap<ClSymbol, PsiNamedElement>();
+  private final Map<ClSymbol, PsiElement> myFileLevel = new HashMap<ClSymbol, PsiElement>();
+
+  private ClojureFileResolver(@NotNull PsiFile file) {
+    final LinkedList<Map<String, PsiNamedElement>> scopes = new LinkedList<Map<String, PsiNamedElement>>();
+    for (PsiElement form = file.getFirstChild(); form != null; form = form.getNextSibling()) {
+      walk(form, form, scopes);
+    }
+  }
+
+  @Nullable
+  private static ClojureFileResolver getInstance(@Nullable final PsiFile file) {
+    if (!(file instanceof ClojureFile)) return null;
+    return CachedValuesManager.getManager(file.getProject()).getCachedValue(file, FILE_RESOLVER_KEY,
+        new CachedValueProvider<ClojureFileResolver>() {
+          public Result<ClojureFileResolver> compute() {
+            return Result.create(new ClojureFileResolver(file), file);
+          }
+        }, false);
+  }
+
+  /**
+   * Resolves symbol, using results of the file-wide pass when possible
+   */
+  @NotNull
+  public static ResolveResult[] multiResolve(@NotNull ClSymbol symbol) {
+    final ClojureResolveResult[] local = resolveLocal(symbol);
+    return local != null ? local : symbol.multiResolve(false);
+  }
+
+  /**
+   * @return local binding of unqualified symbol, or null if the symbol is not bound locally
+   * or can't be resolved by the file-wide pass
+   */
+  @Nullable
+  public static ClojureResolveResult[] resolveLocal(@NotNull ClSymbol symbol) {
+    final ClojureFileResolver resolver = getInstance(symbol.getContainingFile());
+    if (resolver == null) return null;
+    final PsiNamedElement binding = resolver.myLocals.get(symbol);
+    return binding == null ? null : new ClojureResolveResult[]{new ClojureResolveResultImpl(binding, true)};
+  }
+
+  /**
+   * Same as {@link ResolveUtil#treeWalkUp(PsiElement, PsiScopeProcessor)} for the symbol,
+   * but skips enclosing forms if the file-wide pass found no local declarations for it
+   */
+  public static boolean treeWalkUp(@NotNull ClSymbol symbol, @NotNull PsiScopeProcessor processor) {
+    final ClojureFileResolver resolver = getInstance(symbol.getContainingFile());
+    final PsiElement topLevelForm = resolver == null ? null : resolver.myFileLevel.get(symbol);
+    if (topLevelForm == null) return ResolveUtil.treeWalkUp(symbol, processor);
+
+    PsiElement lastParent = topLevelForm;
+    PsiElement run = topLevelForm.getContext();
+    while (run != null) {
+      if (!run.processDeclarations(processor, ResolveState.initial(), lastParent, symbol)) return false;
+      lastParent = run;
+      run = run.getContext();
+    }
+    return true;
+  }
+
+  private void walk(PsiElement element, PsiElement topLevelForm, LinkedList<Map<String, PsiNamedElement>> scopes) {
+    if (element instanceof ClSymbol) {
+      recordSymbol((ClSymbol) element, topLevelForm, scopes);
+    }
+    if (isPlaceDependent(element)) return;
+
+    final boolean isBindingForm = element instanceof ClDef ||
+        element instanceof ClList && ListDeclarations.isLocalBindingForm(((ClList) element).getHeadText());
+    for (PsiElement child = element.getFirstChild(); child != null; child = child.getNextSibling()) {
+      if (child instanceof LeafPsiElement) continue;
+      if (isBindingForm) {
+        scopes.addFirst(collectBindings(element, child));
+        walk(child, topLevelForm, scopes);
+        scopes.removeFirst();
+      } else {
+        walk(child, topLevelForm, scopes);
+      }
+    }
+  }
+
+  private static boolean isPlaceDependent(PsiElement element) {
+    return element instanceof ClNs ||
+        element instanceof ClList && !(element instanceof ClDef) &&
+            ListDeclarations.isPlaceDependentForm(((ClList) element).getHeadText());
+  }
+
+  /**
+   * @return names visible inside <code>child</code> of the binding form, first declaration of each name wins
+   */
+  private static Map<String, PsiNamedElement> collectBindings(PsiElement form, PsiElement child) {
+    final Map<String, PsiNamedElement> bindings = new HashMap<String, PsiNamedElement>();
+    form.processDeclarations(new BaseScopeProcessor() {
+      public boolean execute(PsiElement element, ResolveState state) {
+        if (element instanceof PsiNamedElement) {
+          final String name = ((PsiNamedElement) element).getName();
+          if (name != null && !bindings.containsKey(name)) {
+            bindings.put(name, (PsiNamedElement) element);
+          }
+        }
+        return true;
+      }
+    }, ResolveState.initial(), child, child);
+    return bindings;
+  }
+
+  private void recordSymbol(ClSymbol symbol, PsiElement topLevelForm, LinkedList<Map<String, PsiNamedElement>> scopes) {
+    // Symbols in vectors and maps may be binding forms themselves, they are resolved as usual
+    if (!(symbol.getParent() instanceof ClList) || symbol.getQualifierSymbol() != null) return;
+    final String name = symbol.getReferenceName();
+    if (name == null || name.contains(".")) return;
+
+    for (Map<String, PsiNamedElement> scope : scopes) {
+      final PsiNamedElement binding = scope.get(name);
+      if (binding != null) {
+        // Only local bindings stop the resolve, other declarations are combined with the outer ones
+        if (ListDeclarations.isLocal(binding)) {
+          myLocals.put(symbol, binding);
+        }
+        return;
+      }
+    }
+    myFileLevel.put(symbol, topLevelForm);
+  }
+}
@@ -9,6 +9,7 @@ import com.intellij.psi.PsiNamedElement;
 import com.intellij.psi.util.PsiTreeUtil;
 import com.intellij.psi.scope.PsiScopeProcessor;
 import com.intellij.psi.scope.NameHint;
+import org.jetbrains.annotations.Nullable;
 import org.jetbrains.plugins.clojure.psi.ClojurePsiElement;
 import org.jetbrains.plugins.clojure.psi.api.ClListLike;
 import org.jetbrains.plugins.clojure.psi.api.symbols.ClSymbol;
@@ -61,6 +62,15 @@ public abstract class ResolveUtil {
     return true;
   }
 
+  /**
+   * @return name the processor is looking for, or null if it accepts any name
+   */
+  @Nullable
+  public static String getExpectedName(PsiScopeProcessor processor) {
+    NameHint nameHint = processor.getHint(NameHint.KEY);
+    return nameHint == null ? null : nameHint.getName(ResolveState.initial());
+  }
+
   public static PsiElement[] mapToElements(ClojureResolveResult[] candidates) {
     PsiElement[] elements = new PsiElement[candidates.length];
     for (int i = 0; i < elements.length; i++) {
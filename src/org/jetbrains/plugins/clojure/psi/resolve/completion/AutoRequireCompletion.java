@@ -0,0 +1,81 @@
+package org.jetbrains.plugins.clojure.psi.resolve.completion;
+
+import com.intellij.codeInsight.completion.CompletionResultSet;
+import com.intellij.codeInsight.completion.InsertHandler;
+import com.intellij.codeInsight.completion.InsertionContext;
+import com.intellij.codeInsight.completion.PrioritizedLookupElement;
+import com.intellij.codeInsight.lookup.LookupElement;
+import com.intellij.codeInsight.lookup.LookupElementBuilder;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiFile;
+import com.intellij.util.ArrayUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.plugins.clojure.psi.api.ClojureFile;
+import org.jetbrains.plugins.clojure.psi.api.ns.ClNs;
+import org.jetbrains.plugins.clojure.psi.api.symbols.ClSymbol;
+import org.jetbrains.plugins.clojure.psi.resolve.completion.ClojureVarCompletionIndex.VarEntry;
+import org.jetbrains.plugins.clojure.psi.util.ClojureKeywords;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Completes vars of namespaces not required by the current file from {@link ClojureVarCompletionIndex}.
+ * The var is inserted qualified and its namespace is added to <code>(:require ...)</code> of the file.
+ *
+ * @author ilyas
+ */
+public class AutoRequireCompletion {
+  private static final String CLOJURE_CORE = "clojure.core";
+
+  private static final InsertHandler<LookupElement> REQUIRE_HANDLER = new InsertHandler<LookupElement>() {
+    public void handleInsert(InsertionContext context, LookupElement item) {
+      final VarEntry entry = (VarEntry) item.getObject();
+      final String namespace = entry.getNamespace();
+      ClojureCompletionStatistics.getInstance(context.getProject()).itemAccepted(item);
+      final String text = namespace + "/" + entry.getName();
+      context.getDocument().replaceString(context.getStartOffset(), context.getTailOffset(), text);
+      context.getEditor().getCaretModel().moveToOffset(context.getStartOffset() + text.length());
+      PsiDocumentManager.getInstance(context.getProject()).commitDocument(context.getDocument());
+
+      final PsiFile file = context.getFile();
+      if (!(file instanceof ClojureFile)) return;
+      final ClNs ns = ((ClojureFile) file).getNamespaceElement();
+      if (ns != null && !ArrayUtil.contains(namespace, ns.getRequiredNamespaces())) {
+        ns.addRequireForNamespace(namespace);
+      }
+    }
+  };
+
+  public static void addVars(@NotNull ClSymbol symbol, @NotNull CompletionResultSet result) {
+    final String prefix = result.getPrefixMatcher().getPrefix();
+    if (prefix.length() == 0 || symbol.getQualifierSymbol() != null || prefix.startsWith(".")) return;
+
+    final PsiFile file = symbol.getContainingFile();
+    if (!(file instanceof ClojureFile)) return;
+    final Set<String> visibleNamespaces = new HashSet<String>();
+    visibleNamespaces.add(CLOJURE_CORE);
+    final ClNs ns = ((ClojureFile) file).getNamespaceElement();
+    if (ns != null) {
+      visibleNamespaces.add(ns.getName());
+      for (String required : ns.getRequiredNamespaces()) {
+        visibleNamespaces.add(required);
+      }
+    }
+
+    final ClojureVarCompletionIndex index = ClojureVarCompletionIndex.getInstance(file.getProject());
+    for (VarEntry entry : index.getVars(prefix)) {
+      ProgressManager.checkCanceled();
+      if (visibleNamespaces.contains(entry.getNamespace()) || !result.getPrefixMatcher().prefixMatches(entry.getName())) {
+        continue;
+      }
+      final LookupElementBuilder builder = LookupElementBuilder.create(entry, entry.getName()).
+          withTailText(entry.getArglists().length() > 0 ? " " + entry.getArglists() : "", true).
+          withTypeText(ClojureKeywords.REQUIRE + " " + entry.getNamespace()).
+          withInsertHandler(REQUIRE_HANDLER);
+      // below the vars visible without require, more required namespaces first
+      result.addElement(PrioritizedLookupElement.withPriority(builder, -1.0 / (1 + index.getPopularity(entry.getNamespace()))));
+    }
+  }
+}
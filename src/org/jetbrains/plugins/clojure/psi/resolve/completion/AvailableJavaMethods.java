@@ -0,0 +1,72 @@
+package org.jetbrains.plugins.clojure.psi.resolve.completion;
+
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.openapi.util.Key;
+import com.intellij.psi.*;
+import com.intellij.psi.scope.BaseScopeProcessor;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.intellij.util.containers.MultiMap;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+
+/**
+ * Public methods of all Java classes visible at the file level, i.e. imported, from <code>java.lang</code>
+ * or from the default package. Computed once per file modification.
+ *
+ * @author ilyas
+ */
+public class AvailableJavaMethods {
+  private static final Key<CachedValue<AvailableJavaMethods>> AVAILABLE_METHODS_KEY = Key.create("clojure.available.java.methods");
+
+  private final MultiMap<String, PsiMethod> myMethodsByName;
+
+  private AvailableJavaMethods(MultiMap<String, PsiMethod> methodsByName) {
+    myMethodsByName = methodsByName;
+  }
+
+  @NotNull
+  public static AvailableJavaMethods getInstance(@NotNull final PsiFile file) {
+    return CachedValuesManager.getManager(file.getProject()).getCachedValue(file, AVAILABLE_METHODS_KEY,
+        new CachedValueProvider<AvailableJavaMethods>() {
+          public Result<AvailableJavaMethods> compute() {
+            final LinkedHashSet<PsiClass> classes = new LinkedHashSet<PsiClass>();
+            file.processDeclarations(new BaseScopeProcessor() {
+              public boolean execute(PsiElement element, ResolveState state) {
+                if (element instanceof PsiClass) {
+                  classes.add((PsiClass) element);
+                }
+                return true;
+              }
+            }, ResolveState.initial(), null, file);
+            final PsiElement[] elements = classes.toArray(new PsiElement[classes.size()]);
+            return Result.create(new AvailableJavaMethods(CompleteSymbol.collectAvailableMethods(elements)),
+                file,
+                PsiModificationTracker.JAVA_STRUCTURE_MODIFICATION_COUNT,
+                ProjectRootManager.getInstance(file.getProject()));
+          }
+        }, false);
+  }
+
+  /**
+   * @return methods grouped by name
+   */
+  @NotNull
+  public MultiMap<String, PsiMethod> getMethodsByName() {
+    return myMethodsByName;
+  }
+
+  @NotNull
+  public Collection<PsiMethod> getMethods(@NotNull String name) {
+    return myMethodsByName.get(name);
+  }
+
+  @NotNull
+  public Collection<PsiMethod> getAllMethods() {
+    return myMethodsByName.values();
+  }
+}
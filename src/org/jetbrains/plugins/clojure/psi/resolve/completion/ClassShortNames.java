@@ -0,0 +1,131 @@
+package org.jetbrains.plugins.clojure.psi.resolve.completion;
+
+import com.intellij.codeInsight.CodeInsightSettings;
+import com.intellij.codeInsight.completion.PrefixMatcher;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.psi.search.PsiShortNamesCache;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.plugins.clojure.psi.impl.ClojurePsiManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Short names of all classes, sorted, so that names with a given prefix are found by binary search
+ * as in a trie, without enumerating all classes. Library classes change with roots only, so the names
+ * are built once per change of roots or of class names in sources.
+ * Exclusion of a class from completion is computed once per qualified name and kept as a flag,
+ * until the excluded packages setting changes.
+ *
+ * @author ilyas
+ */
+public class ClassShortNames {
+  private static final Key<CachedValue<ClassShortNames>> CLASS_SHORT_NAMES_KEY = Key.create("clojure.class.short.names");
+
+  private final String[] myNames;
+  private volatile Exclusion myExclusion = new Exclusion(null);
+
+  private ClassShortNames(@NotNull String[] names) {
+    myNames = names;
+    Arrays.sort(myNames);
+  }
+
+  @NotNull
+  public static ClassShortNames getInstance(@NotNull final Project project) {
+    return CachedValuesManager.getManager(project).getCachedValue(project, CLASS_SHORT_NAMES_KEY,
+        new CachedValueProvider<ClassShortNames>() {
+          public Result<ClassShortNames> compute() {
+            final String[] names = PsiShortNamesCache.getInstance(project).getAllClassNames();
+            return Result.create(new ClassShortNames(names.clone()),
+                ProjectRootManager.getInstance(project),
+                ClojurePsiManager.getInstance(project).getClassNamesModificationTracker());
+          }
+        }, false);
+  }
+
+  /**
+   * @return short class names matching the prefix matcher and starting with the first letter of its prefix in any case
+   */
+  @NotNull
+  public List<String> getNames(@NotNull PrefixMatcher matcher) {
+    final String prefix = matcher.getPrefix();
+    final List<String> result = new ArrayList<String>();
+    if (prefix.length() == 0) {
+      for (String name : myNames) {
+        ProgressManager.checkCanceled();
+        if (matcher.prefixMatches(name)) result.add(name);
+      }
+      return result;
+    }
+
+    final String first = prefix.substring(0, 1);
+    addNames(first.toUpperCase(), matcher, result);
+    if (!first.toUpperCase().equals(first.toLowerCase())) {
+      addNames(first.toLowerCase(), matcher, result);
+    }
+    return result;
+  }
+
+  private void addNames(String start, PrefixMatcher matcher, List<String> result) {
+    int i = Arrays.binarySearch(myNames, start);
+    if (i < 0) i = -i - 1;
+    for (; i < myNames.length && myNames[i].startsWith(start); i++) {
+      ProgressManager.checkCanceled();
+      if (matcher.prefixMatches(myNames[i])) result.add(myNames[i]);
+    }
+  }
+
+  /**
+   * @return true if class is in one of the packages excluded from completion and auto-import
+   */
+  public boolean isExcluded(@Nullable String qualifiedName) {
+    if (qualifiedName == null) return false;
+    final String[] source = CodeInsightSettings.getInstance().EXCLUDED_PACKAGES;
+    Exclusion exclusion = myExclusion;
+    if (exclusion.mySource != source) {
+      exclusion = new Exclusion(source);
+      myExclusion = exclusion;
+    }
+    return exclusion.isExcluded(qualifiedName);
+  }
+
+  /**
+   * Excluded packages as of one value of the setting, with exclusion flags of classes checked so far
+   */
+  private static class Exclusion {
+    @Nullable private final String[] mySource;
+    private final Set<String> myPackages = new HashSet<String>();
+    private final ConcurrentMap<String, Boolean> myFlags = new ConcurrentHashMap<String, Boolean>();
+
+    private Exclusion(@Nullable String[] source) {
+      mySource = source;
+      if (source != null) myPackages.addAll(Arrays.asList(source));
+    }
+
+    private boolean isExcluded(@NotNull String qualifiedName) {
+      if (myPackages.isEmpty()) return false;
+      Boolean flag = myFlags.get(qualifiedName);
+      if (flag == null) {
+        flag = computeExcluded(qualifiedName);
+        myFlags.put(qualifiedName, flag);
+      }
+      return flag;
+    }
+
+    private boolean computeExcluded(@NotNull String qualifiedName) {
+      for (String name = qualifiedName; name.length() > 0; name = StringUtil.getPackageName(name)) {
+        if (myPackages.contains(name)) return true;
+      }
+      return false;
+    }
+  }
+}
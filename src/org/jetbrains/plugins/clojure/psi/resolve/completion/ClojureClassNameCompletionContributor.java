@@ -1,12 +1,11 @@
 package org.jetbrains.plugins.clojure.psi.resolve.completion;
 
 import com.intellij.codeInsight.completion.*;
-import com.intellij.openapi.application.ApplicationManager;
-import com.intellij.openapi.util.Computable;
+import com.intellij.openapi.project.Project;
 import com.intellij.psi.PsiClass;
 import com.intellij.psi.PsiElement;
-import com.intellij.psi.util.PsiTreeUtil;
-import com.intellij.util.Consumer;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.search.PsiShortNamesCache;
 import org.jetbrains.plugins.clojure.psi.api.ClList;
 import org.jetbrains.plugins.clojure.psi.api.symbols.ClSymbol;
 import org.jetbrains.plugins.clojure.psi.impl.list.ListDeclarations;
@@ -31,16 +30,21 @@ public class ClojureClassNameCompletionContributor extends CompletionContributor
     }
     final PrefixMatcher prefixMatcher = result.getPrefixMatcher();
     final boolean filterByScope = parameters.getInvocationCount() <= 1;
-    AllClassesGetter.processJavaClasses(parameters, prefixMatcher, filterByScope,
-        new Consumer<PsiClass>() {
-          public void consume(final PsiClass clazz) {
-            if (!AllClassesGetter.isAcceptableInContext(position, clazz, filterByScope, true)) return;
-            final ClojureLookupItem lookupItem = new ClojureLookupItem(clazz);
-            lookupItem.setClassName(true);
-            lookupItem.setInImport(isInImport);
-            result.addElement(lookupItem);
-          }
-        });
+    final Project project = position.getProject();
+    final GlobalSearchScope scope = filterByScope ?
+        parameters.getOriginalFile().getResolveScope() : GlobalSearchScope.allScope(project);
+    final PsiShortNamesCache cache = PsiShortNamesCache.getInstance(project);
+    final ClassShortNames shortNames = ClassShortNames.getInstance(project);
+    for (String name : shortNames.getNames(prefixMatcher)) {
+      for (PsiClass clazz : cache.getClassesByName(name, scope)) {
+        if (shortNames.isExcluded(clazz.getQualifiedName())) continue;
+        if (!AllClassesGetter.isAcceptableInContext(position, clazz, filterByScope, true)) continue;
+        final ClojureLookupItem lookupItem = new ClojureLookupItem(clazz);
+        lookupItem.setClassName(true);
+        lookupItem.setInImport(isInImport);
+        result.addElement(lookupItem);
+      }
+    }
   }
 
   public static boolean shouldRunClassName(CompletionParameters parameters, PrefixMatcher prefixMatcher,
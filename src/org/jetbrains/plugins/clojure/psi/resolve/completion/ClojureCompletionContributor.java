@@ -2,11 +2,11 @@ package org.jetbrains.plugins.clojure.psi.resolve.completion;
 
 import com.intellij.codeInsight.completion.*;
 import com.intellij.codeInsight.lookup.LookupElement;
-import com.intellij.openapi.application.ApplicationManager;
-import com.intellij.openapi.util.Computable;
 import com.intellij.openapi.util.Ref;
 import com.intellij.psi.PsiClass;
 import com.intellij.psi.PsiElement;
+import com.intellij.util.Consumer;
+import org.jetbrains.plugins.clojure.psi.api.ClKeyword;
 import org.jetbrains.plugins.clojure.psi.api.symbols.ClSymbol;
 
 /**
@@ -15,39 +15,41 @@ import org.jetbrains.plugins.clojure.psi.api.symbols.ClSymbol;
  */
 public class ClojureCompletionContributor extends CompletionContributor {
   @Override
-  public void fillCompletionVariants(CompletionParameters parameters, CompletionResultSet result) {
+  public void fillCompletionVariants(CompletionParameters parameters, final CompletionResultSet result) {
     super.fillCompletionVariants(parameters, result);
     if (parameters.getCompletionType() != CompletionType.BASIC) return; //only basic completion is here
     result.restartCompletionWhenNothingMatches();
     final PsiElement position = parameters.getPosition();
     final PsiElement parent = position.getParent();
+    if (parent instanceof ClKeyword) {
+      KeywordCompletion.addKeywords((ClKeyword) parent, parameters, result);
+      result.stopHere();
+      return;
+    }
     final boolean isClassName = ClojureClassNameCompletionContributor.shouldRunClassName(parameters,
         result.getPrefixMatcher(), true);
     if (parent instanceof ClSymbol) {
       ClSymbol symbol = (ClSymbol) parent;
-      final Object[] variants = symbol.getVariants();
-      Ref<Boolean> elementAdded = new Ref<Boolean>(Boolean.FALSE);
-      for (Object variant : variants) {
-        if (variant instanceof ClojureLookupItem) {
-          ClojureLookupItem lookupItem = (ClojureLookupItem) variant;
-          final PsiElement element = lookupItem.getPsiElement();
-          if (element instanceof PsiClass) {
-            final PsiClass clazz = (PsiClass) element;
-            boolean isExcluded = ApplicationManager.getApplication().runReadAction(new Computable<Boolean>() {
-              public Boolean compute() {
-                return JavaCompletionUtil.isInExcludedPackage(clazz, true);
+      final Ref<Boolean> elementAdded = new Ref<Boolean>(Boolean.FALSE);
+      CompleteSymbol.addVariants(symbol, result.getPrefixMatcher(), new Consumer<LookupElement>() {
+        public void consume(LookupElement variant) {
+          if (variant instanceof ClojureLookupItem) {
+            ClojureLookupItem lookupItem = (ClojureLookupItem) variant;
+            final PsiElement element = lookupItem.getPsiElement();
+            if (element instanceof PsiClass) {
+              final PsiClass clazz = (PsiClass) element;
+              if (!isClassName && !ClassShortNames.getInstance(clazz.getProject()).isExcluded(clazz.getQualifiedName())) {
+                addElement(result, lookupItem, elementAdded);
               }
-            });
-            if (!isExcluded && !isClassName) {
+            } else {
               addElement(result, lookupItem, elementAdded);
             }
           } else {
-            addElement(result, lookupItem, elementAdded);
+            addElement(result, variant, elementAdded);
           }
-        } else if (variant instanceof LookupElement) {
-          addElement(result, (LookupElement) variant, elementAdded);
         }
-      }
+      });
+      AutoRequireCompletion.addVars(symbol, result);
       if (!elementAdded.get() && !isClassName && ClojureClassNameCompletionContributor.shouldRunClassName(parameters,
           result.getPrefixMatcher(), false)) {
         ClojureClassNameCompletionContributor.completeClassName(parameters, result);
@@ -56,7 +58,7 @@ public class ClojureCompletionContributor extends CompletionContributor {
     }
   }
 
-  private void addElement(CompletionResultSet result, LookupElement lookupItem, Ref<Boolean> elementAdded) {
+  private static void addElement(CompletionResultSet result, LookupElement lookupItem, Ref<Boolean> elementAdded) {
     if (result.getPrefixMatcher().prefixMatches(lookupItem)) {
       elementAdded.set(Boolean.TRUE);
     }
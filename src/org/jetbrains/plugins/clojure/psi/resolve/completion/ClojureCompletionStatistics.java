@@ -0,0 +1,232 @@
+package org.jetbrains.plugins.clojure.psi.resolve.completion;
+
+import com.intellij.codeInsight.lookup.LookupElement;
+import com.intellij.openapi.application.PathManager;
+import com.intellij.openapi.components.ProjectComponent;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.project.Project;
+import com.intellij.util.Alarm;
+import gnu.trove.TIntIntHashMap;
+import gnu.trove.TIntIntProcedure;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.plugins.clojure.psi.api.defs.ClDef;
+
+import java.io.*;
+import java.util.Arrays;
+
+/**
+ * Numbers of accepted completions per var, keyed by hash of <code>namespace/name</code>.
+ * A second, independent hash of the name is kept with each entry, so that a var whose key collides
+ * with another one is not given its count. At most {@link #MAX_ENTRIES} vars are kept, the least
+ * recently accepted ones are evicted. Saved to the system directory every few minutes if changed,
+ * and when the project is closed.
+ *
+ * @author ilyas
+ */
+public class ClojureCompletionStatistics implements ProjectComponent {
+  private static final Logger LOG = Logger.getInstance("org.jetbrains.plugins.clojure.psi.resolve.completion.ClojureCompletionStatistics");
+
+  private static final int VERSION = 2;
+  private static final int MAX_ENTRIES = 4096;
+  private static final int SAVE_DELAY = 5 * 60 * 1000;
+
+  private final Project myProject;
+  private final Alarm mySaveAlarm;
+  // guarded by this
+  private final TIntIntHashMap myCounts = new TIntIntHashMap();
+  private final TIntIntHashMap myCheckHashes = new TIntIntHashMap();
+  private final TIntIntHashMap myLastAccepted = new TIntIntHashMap();
+  private int myStamp = 0;
+  private boolean myDirty = false;
+
+  public ClojureCompletionStatistics(Project project) {
+    myProject = project;
+    mySaveAlarm = new Alarm(Alarm.ThreadToUse.SHARED_THREAD, project);
+  }
+
+  public static ClojureCompletionStatistics getInstance(@NotNull Project project) {
+    return project.getComponent(ClojureCompletionStatistics.class);
+  }
+
+  /**
+   * @return <code>namespace/name</code> of the var behind lookup element, null for other elements
+   */
+  @Nullable
+  public static String getQualifiedName(@NotNull LookupElement element) {
+    final Object object = element.getObject();
+    if (object instanceof ClojureVarCompletionIndex.VarEntry) {
+      final ClojureVarCompletionIndex.VarEntry entry = (ClojureVarCompletionIndex.VarEntry) object;
+      return entry.getNamespace() + "/" + entry.getName();
+    }
+    if (object instanceof ClDef) {
+      final ClDef def = (ClDef) object;
+      final String namespace = def.getNamespace();
+      final String name = def.getName();
+      return namespace == null || name == null ? null : namespace + "/" + name;
+    }
+    return null;
+  }
+
+  public synchronized int getCount(@NotNull String qualifiedName) {
+    final int key = qualifiedName.hashCode();
+    return myCheckHashes.get(key) == checkHash(qualifiedName) ? myCounts.get(key) : 0;
+  }
+
+  /**
+   * @return hash of the name independent of {@link String#hashCode()}, computed from the last character backwards
+   */
+  private static int checkHash(@NotNull String qualifiedName) {
+    int hash = qualifiedName.length();
+    for (int i = qualifiedName.length() - 1; i >= 0; i--) {
+      hash = hash * 16777619 ^ qualifiedName.charAt(i);
+    }
+    return hash;
+  }
+
+  public void itemAccepted(@NotNull LookupElement element) {
+    final String name = getQualifiedName(element);
+    if (name != null) {
+      itemAccepted(name);
+    }
+  }
+
+  public synchronized void itemAccepted(@NotNull String qualifiedName) {
+    final int key = qualifiedName.hashCode();
+    final int checkHash = checkHash(qualifiedName);
+    if (myCheckHashes.containsKey(key) && myCheckHashes.get(key) == checkHash) {
+      myCounts.adjustValue(key, 1);
+    } else {
+      // a new var, or one colliding with the var counted so far, which is forgotten
+      myCounts.put(key, 1);
+      myCheckHashes.put(key, checkHash);
+    }
+    myLastAccepted.put(key, ++myStamp);
+    myDirty = true;
+    if (myCounts.size() > MAX_ENTRIES) {
+      evictLeastRecent();
+    }
+  }
+
+  /**
+   * Drops the least recently accepted quarter of the entries
+   */
+  private void evictLeastRecent() {
+    final int[] stamps = myLastAccepted.getValues();
+    Arrays.sort(stamps);
+    final int threshold = stamps[stamps.length / 4];
+    for (int key : myLastAccepted.keys()) {
+      if (myLastAccepted.get(key) < threshold) {
+        myLastAccepted.remove(key);
+        myCounts.remove(key);
+        myCheckHashes.remove(key);
+      }
+    }
+  }
+
+  private File getStatisticsFile() {
+    return new File(PathManager.getSystemPath() + File.separator + "clojure" + File.separator + "completion",
+        myProject.getLocationHash() + ".stats");
+  }
+
+  private synchronized void load() {
+    final File file = getStatisticsFile();
+    if (!file.exists()) return;
+    DataInputStream in = null;
+    try {
+      in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+      if (in.readInt() != VERSION) return;
+      myStamp = in.readInt();
+      final int size = in.readInt();
+      for (int i = 0; i < size; i++) {
+        final int key = in.readInt();
+        myCheckHashes.put(key, in.readInt());
+        myCounts.put(key, in.readInt());
+        myLastAccepted.put(key, in.readInt());
+      }
+    } catch (IOException e) {
+      LOG.info(e);
+      myCounts.clear();
+      myCheckHashes.clear();
+      myLastAccepted.clear();
+    } finally {
+      close(in);
+    }
+  }
+
+  private synchronized void save() {
+    if (!myDirty) return;
+    final File file = getStatisticsFile();
+    final File dir = file.getParentFile();
+    if (!dir.exists() && !dir.mkdirs()) return;
+    DataOutputStream out = null;
+    try {
+      final DataOutputStream stream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+      out = stream;
+      stream.writeInt(VERSION);
+      stream.writeInt(myStamp);
+      stream.writeInt(myCounts.size());
+      final IOException[] error = new IOException[1];
+      myCounts.forEachEntry(new TIntIntProcedure() {
+        public boolean execute(int key, int count) {
+          try {
+            stream.writeInt(key);
+            stream.writeInt(myCheckHashes.get(key));
+            stream.writeInt(count);
+            stream.writeInt(myLastAccepted.get(key));
+            return true;
+          } catch (IOException e) {
+            error[0] = e;
+            return false;
+          }
+        }
+      });
+      if (error[0] != null) throw error[0];
+      myDirty = false;
+    } catch (IOException e) {
+      LOG.info(e);
+    } finally {
+      close(out);
+    }
+  }
+
+  private static void close(@Nullable Closeable stream) {
+    if (stream == null) return;
+    try {
+      stream.close();
+    } catch (IOException e) {
+      LOG.info(e);
+    }
+  }
+
+  private void scheduleSave() {
+    mySaveAlarm.addRequest(new Runnable() {
+      public void run() {
+        save();
+        scheduleSave();
+      }
+    }, SAVE_DELAY);
+  }
+
+  public void projectOpened() {
+    scheduleSave();
+  }
+
+  public void projectClosed() {
+    mySaveAlarm.cancelAllRequests();
+    save();
+  }
+
+  @NotNull
+  public String getComponentName() {
+    return "ClojureCompletionStatistics";
+  }
+
+  public void initComponent() {
+    load();
+  }
+
+  public void disposeComponent() {
+    save();
+  }
+}
@@ -0,0 +1,22 @@
+package org.jetbrains.plugins.clojure.psi.resolve.completion;
+
+import com.intellij.codeInsight.completion.CompletionLocation;
+import com.intellij.codeInsight.completion.CompletionWeigher;
+import com.intellij.codeInsight.lookup.LookupElement;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.plugins.clojure.file.ClojureFileType;
+
+/**
+ * Puts vars accepted in completion more often first, see {@link ClojureCompletionStatistics}
+ *
+ * @author ilyas
+ */
+public class ClojureCompletionWeigher extends CompletionWeigher {
+  @Override
+  public Comparable weigh(@NotNull LookupElement element, @NotNull CompletionLocation location) {
+    if (location.getCompletionParameters().getOriginalFile().getFileType() != ClojureFileType.CLOJURE_FILE_TYPE) return 0;
+    final String name = ClojureCompletionStatistics.getQualifiedName(element);
+    if (name == null) return 0;
+    return ClojureCompletionStatistics.getInstance(location.getCompletionParameters().getPosition().getProject()).getCount(name);
+  }
+}
@@ -70,6 +70,7 @@ public class ClojureLookupItem extends LookupItem<PsiElement> {
 
   @Override
   public void handleInsert(InsertionContext context) {
+    ClojureCompletionStatistics.getInstance(context.getProject()).itemAccepted(this);
     if (isClassName()) {
       PsiDocumentManager.getInstance(context.getProject()).commitDocument(context.getDocument());
       final int startOffset = context.getStartOffset();
@@ -0,0 +1,407 @@
+package org.jetbrains.plugins.clojure.psi.resolve.completion;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.openapi.util.Computable;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.*;
+import com.intellij.psi.search.FileTypeIndex;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.stubs.StubElement;
+import com.intellij.psi.stubs.StubTree;
+import com.intellij.util.ArrayUtil;
+import com.intellij.util.TimeoutUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.TestOnly;
+import org.jetbrains.plugins.clojure.file.ClojureFileType;
+import org.jetbrains.plugins.clojure.parser.ClojureElementTypes;
+import org.jetbrains.plugins.clojure.parser.ClojureSpecialFormTokens;
+import org.jetbrains.plugins.clojure.psi.api.ClojureFile;
+import org.jetbrains.plugins.clojure.psi.api.defs.ClDef;
+import org.jetbrains.plugins.clojure.psi.api.ns.ClNs;
+import org.jetbrains.plugins.clojure.psi.stubs.StubNames;
+import org.jetbrains.plugins.clojure.psi.stubs.api.ClDefStub;
+import org.jetbrains.plugins.clojure.psi.stubs.api.ClNsStub;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Public vars of all namespaces in the project and its libraries, kept for completion.
+ * The index is built on a pooled thread, one short read action per file, and afterwards
+ * only files changed, added or removed since the last update are re-read; roots changes
+ * rebuild it. Vars of re-read files are merged into the sorted snapshot, and popularity
+ * of namespaces is adjusted by the requires of re-read files only. Queries never wait
+ * for an update, they are answered from the last built snapshot.
+ *
+ * @author ilyas
+ */
+public class ClojureVarCompletionIndex {
+  private static final VarEntry[] EMPTY = new VarEntry[0];
+  private static final FileVars NO_VARS = new FileVars(EMPTY, ArrayUtil.EMPTY_STRING_ARRAY);
+
+  private final Project myProject;
+  private final Object myLock = new Object();
+  // guarded by myLock
+  private final Map<VirtualFile, FileVars> myVarsByFile = new HashMap<VirtualFile, FileVars>();
+  private final Set<VirtualFile> myChangedFiles = new HashSet<VirtualFile>();
+  private boolean myPurgeInvalid = false;
+  private boolean myRebuildAll = true;
+  private long myRootsModificationCount = -1;
+
+  // number of files requiring a namespace, written under myLock
+  private final Map<String, Integer> myPopularity = new ConcurrentHashMap<String, Integer>();
+  private volatile VarEntry[] mySnapshot = EMPTY;
+  private final AtomicBoolean myUpdateScheduled = new AtomicBoolean(false);
+
+  public static ClojureVarCompletionIndex getInstance(@NotNull Project project) {
+    return ServiceManager.getService(project, ClojureVarCompletionIndex.class);
+  }
+
+  public ClojureVarCompletionIndex(@NotNull Project project) {
+    myProject = project;
+    PsiManager.getInstance(project).addPsiTreeChangeListener(new PsiTreeChangeAdapter() {
+      @Override
+      public void childAdded(PsiTreeChangeEvent event) {
+        changed(event, event.getChild());
+      }
+
+      @Override
+      public void childRemoved(PsiTreeChangeEvent event) {
+        changed(event, event.getChild());
+      }
+
+      @Override
+      public void childReplaced(PsiTreeChangeEvent event) {
+        changed(event, event.getOldChild());
+        changed(event, event.getNewChild());
+      }
+
+      @Override
+      public void childMoved(PsiTreeChangeEvent event) {
+        changed(event, event.getChild());
+      }
+
+      @Override
+      public void childrenChanged(PsiTreeChangeEvent event) {
+        changed(event, null);
+      }
+
+      @Override
+      public void propertyChanged(PsiTreeChangeEvent event) {
+        // a renamed file may have become or stopped being a Clojure file
+        if (PsiTreeChangeEvent.PROP_FILE_NAME.equals(event.getPropertyName()) && event.getElement() instanceof PsiFile) {
+          fileChanged(((PsiFile) event.getElement()).getVirtualFile());
+        }
+      }
+    }, project);
+  }
+
+  /**
+   * Marks the file of the event as changed. Outside of files only added, removed or moved
+   * Clojure files, or Clojure files of such directories, are marked.
+   */
+  private void changed(PsiTreeChangeEvent event, @Nullable PsiElement child) {
+    final PsiFile file = event.getFile();
+    if (file != null) {
+      if (file instanceof ClojureFile) fileChanged(file.getVirtualFile());
+    } else if (child instanceof PsiFile) {
+      fileChanged(((PsiFile) child).getVirtualFile());
+    } else if (child instanceof PsiDirectory) {
+      final VirtualFile dir = ((PsiDirectory) child).getVirtualFile();
+      if (dir.isValid()) {
+        directoryChanged(dir);
+      } else {
+        // the directory is gone, forget files which are no longer valid
+        synchronized (myLock) {
+          myPurgeInvalid = true;
+        }
+      }
+    }
+  }
+
+  private void fileChanged(@Nullable VirtualFile file) {
+    if (file == null) return;
+    synchronized (myLock) {
+      // files no longer valid or no longer Clojure files are re-read to drop their vars
+      if (file.isValid() && file.getFileType() == ClojureFileType.CLOJURE_FILE_TYPE || myVarsByFile.containsKey(file)) {
+        myChangedFiles.add(file);
+      }
+    }
+  }
+
+  private void directoryChanged(@NotNull VirtualFile dir) {
+    for (VirtualFile child : dir.getChildren()) {
+      if (child.isDirectory()) {
+        directoryChanged(child);
+      } else {
+        fileChanged(child);
+      }
+    }
+  }
+
+  /**
+   * Vars with names starting with prefix, from the last built snapshot.
+   * Schedules an update if something has changed since the snapshot was built.
+   */
+  @NotNull
+  public List<VarEntry> getVars(@NotNull String prefix) {
+    scheduleUpdateIfNeeded();
+    if (prefix.length() == 0) return Collections.emptyList();
+
+    final VarEntry[] snapshot = mySnapshot;
+    int i = Arrays.binarySearch(snapshot, new VarEntry(prefix, "", ""));
+    if (i < 0) i = -i - 1;
+    final List<VarEntry> result = new ArrayList<VarEntry>();
+    for (; i < snapshot.length && snapshot[i].getName().startsWith(prefix); i++) {
+      result.add(snapshot[i]);
+    }
+    return result;
+  }
+
+  /**
+   * @return number of files requiring the namespace
+   */
+  public int getPopularity(@NotNull String namespace) {
+    final Integer popularity = myPopularity.get(namespace);
+    return popularity == null ? 0 : popularity;
+  }
+
+  /**
+   * Brings the snapshot up to date in the calling thread
+   */
+  @TestOnly
+  public void updateNow() {
+    scheduleUpdateIfNeeded();
+    while (myUpdateScheduled.get()) {
+      TimeoutUtil.sleep(10);
+    }
+    update();
+  }
+
+  private void scheduleUpdateIfNeeded() {
+    final long rootsModificationCount = ProjectRootManager.getInstance(myProject).getModificationCount();
+    synchronized (myLock) {
+      if (myRootsModificationCount != rootsModificationCount) {
+        myRootsModificationCount = rootsModificationCount;
+        myRebuildAll = true;
+      }
+      if (!myRebuildAll && !myPurgeInvalid && myChangedFiles.isEmpty()) return;
+    }
+    if (DumbService.isDumb(myProject) || !myUpdateScheduled.compareAndSet(false, true)) return;
+
+    ApplicationManager.getApplication().executeOnPooledThread(new Runnable() {
+      public void run() {
+        try {
+          update();
+        } finally {
+          myUpdateScheduled.set(false);
+        }
+      }
+    });
+  }
+
+  private void update() {
+    final boolean rebuildAll;
+    final boolean purgeInvalid;
+    final Set<VirtualFile> files = new HashSet<VirtualFile>();
+    synchronized (myLock) {
+      rebuildAll = myRebuildAll;
+      purgeInvalid = myPurgeInvalid;
+      myRebuildAll = false;
+      myPurgeInvalid = false;
+      files.addAll(myChangedFiles);
+      myChangedFiles.clear();
+    }
+
+    if (rebuildAll) {
+      files.addAll(ApplicationManager.getApplication().runReadAction(new Computable<Collection<VirtualFile>>() {
+        public Collection<VirtualFile> compute() {
+          return FileTypeIndex.getFiles(ClojureFileType.CLOJURE_FILE_TYPE, GlobalSearchScope.allScope(myProject));
+        }
+      }));
+    }
+
+    final Map<VirtualFile, FileVars> updated = new HashMap<VirtualFile, FileVars>();
+    for (final VirtualFile file : files) {
+      if (myProject.isDisposed() || DumbService.isDumb(myProject)) {
+        restore(rebuildAll, purgeInvalid, files);
+        return;
+      }
+      updated.put(file, ApplicationManager.getApplication().runReadAction(new Computable<FileVars>() {
+        public FileVars compute() {
+          return computeVars(file);
+        }
+      }));
+    }
+
+    // entries of re-read and removed files, by identity, and new entries
+    final Set<VarEntry> removed = Collections.newSetFromMap(new IdentityHashMap<VarEntry, Boolean>());
+    final List<VarEntry> added = new ArrayList<VarEntry>();
+    synchronized (myLock) {
+      if (rebuildAll) {
+        myVarsByFile.clear();
+        myPopularity.clear();
+      }
+      if (purgeInvalid) {
+        for (VirtualFile file : new ArrayList<VirtualFile>(myVarsByFile.keySet())) {
+          if (!file.isValid()) updated.put(file, NO_VARS);
+        }
+      }
+      for (Map.Entry<VirtualFile, FileVars> entry : updated.entrySet()) {
+        final FileVars vars = entry.getValue();
+        final FileVars old = vars.isEmpty() ? myVarsByFile.remove(entry.getKey()) : myVarsByFile.put(entry.getKey(), vars);
+        if (old != null) {
+          removed.addAll(Arrays.asList(old.myVars));
+          adjustPopularity(old.myRequires, -1);
+        }
+        added.addAll(Arrays.asList(vars.myVars));
+        adjustPopularity(vars.myRequires, 1);
+      }
+
+      final VarEntry[] newEntries = added.toArray(new VarEntry[added.size()]);
+      Arrays.sort(newEntries);
+      mySnapshot = rebuildAll ? newEntries : merge(mySnapshot, removed, newEntries);
+    }
+  }
+
+  private void adjustPopularity(@NotNull String[] namespaces, int delta) {
+    for (String namespace : namespaces) {
+      final int popularity = getPopularity(namespace) + delta;
+      if (popularity > 0) {
+        myPopularity.put(namespace, popularity);
+      } else {
+        myPopularity.remove(namespace);
+      }
+    }
+  }
+
+  /**
+   * @return sorted entries of <code>snapshot</code> except <code>removed</code> ones, and sorted <code>added</code> ones
+   */
+  @NotNull
+  private static VarEntry[] merge(@NotNull VarEntry[] snapshot, @NotNull Set<VarEntry> removed, @NotNull VarEntry[] added) {
+    final VarEntry[] result = new VarEntry[snapshot.length + added.length];
+    int i = 0;
+    int j = 0;
+    int k = 0;
+    while (i < snapshot.length || j < added.length) {
+      if (i < snapshot.length && removed.contains(snapshot[i])) {
+        i++;
+      } else if (j == added.length || i < snapshot.length && snapshot[i].compareTo(added[j]) <= 0) {
+        result[k++] = snapshot[i++];
+      } else {
+        result[k++] = added[j++];
+      }
+    }
+    return k == result.length ? result : Arrays.copyOf(result, k);
+  }
+
+  private void restore(boolean rebuildAll, boolean purgeInvalid, Set<VirtualFile> files) {
+    synchronized (myLock) {
+      myRebuildAll |= rebuildAll;
+      myPurgeInvalid |= purgeInvalid;
+      myChangedFiles.addAll(files);
+    }
+  }
+
+  @NotNull
+  private FileVars computeVars(@NotNull VirtualFile file) {
+    if (myProject.isDisposed() || !file.isValid()) return NO_VARS;
+    final PsiFile psiFile = PsiManager.getInstance(myProject).findFile(file);
+    if (!(psiFile instanceof ClojureFile)) return NO_VARS;
+
+    final List<VarEntry> result = new ArrayList<VarEntry>();
+    final Set<String> requires = new LinkedHashSet<String>();
+    final StubTree stubTree = ((ClojureFile) psiFile).getStubTree();
+    if (stubTree != null) {
+      for (StubElement<?> element : stubTree.getPlainList()) {
+        if (element.getStubType() == ClojureElementTypes.DEF) {
+          final ClDefStub stub = (ClDefStub) element;
+          if (!stub.isPrivate()) {
+            addVars(stub.getName(), stub.getNamespace(), stub.getParameterString(), stub.getProtocolMethodNames(), result);
+          }
+        } else if (element instanceof ClNsStub) {
+          requires.addAll(Arrays.asList(((ClNsStub) element).getRequiredNamespaces()));
+        }
+      }
+    } else {
+      final String namespace = ((ClojureFile) psiFile).getNamespace();
+      for (ClDef def : ((ClojureFile) psiFile).getFileDefinitions()) {
+        if (!def.isPrivate() && !ClojureSpecialFormTokens.tDEFMETHOD.equals(def.getDefiner())) {
+          addVars(def.getName(), namespace, def.getParameterString(), def.getProtocolMethodNames(), result);
+        }
+      }
+      for (PsiElement child : psiFile.getChildren()) {
+        if (child instanceof ClNs) {
+          requires.addAll(Arrays.asList(((ClNs) child).getRequiredNamespaces()));
+        }
+      }
+    }
+    if (result.isEmpty() && requires.isEmpty()) return NO_VARS;
+    return new FileVars(result.toArray(new VarEntry[result.size()]), ArrayUtil.toStringArray(requires));
+  }
+
+  private static void addVars(@Nullable String name, @Nullable String namespace, @Nullable String arglists,
+                              @NotNull String[] protocolMethods, List<VarEntry> result) {
+    if (name == null || namespace == null) return;
+    final String ns = StubNames.intern(namespace);
+    result.add(new VarEntry(StubNames.intern(name), ns, arglists));
+    for (String method : protocolMethods) {
+      result.add(new VarEntry(StubNames.intern(method), ns, ""));
+    }
+  }
+
+  /**
+   * Vars and required namespaces of one file
+   */
+  private static class FileVars {
+    private final VarEntry[] myVars;
+    private final String[] myRequires;
+
+    private FileVars(@NotNull VarEntry[] vars, @NotNull String[] requires) {
+      myVars = vars;
+      myRequires = requires;
+    }
+
+    private boolean isEmpty() {
+      return myVars.length == 0 && myRequires.length == 0;
+    }
+  }
+
+  public static class VarEntry implements Comparable<VarEntry> {
+    private final String myName;
+    private final String myNamespace;
+    private final String myArglists;
+
+    public VarEntry(@NotNull String name, @NotNull String namespace, @Nullable String arglists) {
+      myName = name;
+      myNamespace = namespace;
+      myArglists = arglists == null ? "" : arglists;
+    }
+
+    @NotNull
+    public String getName() {
+      return myName;
+    }
+
+    @NotNull
+    public String getNamespace() {
+      return myNamespace;
+    }
+
+    @NotNull
+    public String getArglists() {
+      return myArglists;
+    }
+
+    public int compareTo(VarEntry o) {
+      return myName.compareTo(o.myName);
+    }
+  }
+}
@@ -1,17 +1,14 @@
 package org.jetbrains.plugins.clojure.psi.resolve.completion;
 
-import com.intellij.codeInsight.lookup.LookupItem;
-import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.codeInsight.completion.PrefixMatcher;
+import com.intellij.codeInsight.lookup.LookupElement;
+import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.psi.*;
-import com.intellij.psi.util.MethodSignature;
-import com.intellij.util.Function;
-import com.intellij.util.containers.ContainerUtil;
-import com.intellij.util.containers.HashMap;
-import com.intellij.util.containers.HashSet;
-import org.jetbrains.plugins.clojure.ClojureIcons;
+import com.intellij.util.Consumer;
+import com.intellij.util.containers.MultiMap;
+import org.jetbrains.annotations.Nullable;
 import org.jetbrains.plugins.clojure.psi.api.symbols.ClSymbol;
 import org.jetbrains.plugins.clojure.psi.impl.ns.ClSyntheticNamespace;
-import org.jetbrains.plugins.clojure.psi.resolve.ClojureResolveResult;
 import org.jetbrains.plugins.clojure.psi.resolve.ResolveUtil;
 
 import java.util.*;
@@ -22,10 +19,27 @@ import java.util.*;
 public class CompleteSymbol {
 
   public static Object[] getVariants(ClSymbol symbol) {
-    Collection<Object> variants = new ArrayList<Object>();
+    final Collection<Object> variants = new ArrayList<Object>();
+    addVariants(symbol, null, new Consumer<LookupElement>() {
+      public void consume(LookupElement element) {
+        variants.add(element);
+      }
+    });
+    return variants.isEmpty() ? PsiNamedElement.EMPTY_ARRAY : variants.toArray(new Object[variants.size()]);
+  }
 
+  /**
+   * Passes lookup elements to consumer as the declarations are processed.
+   * Elements not matching the prefix matcher are skipped before lookup elements are created for them.
+   */
+  public static void addVariants(ClSymbol symbol, @Nullable PrefixMatcher matcher, final Consumer<LookupElement> consumer) {
     ClSymbol qualifier = symbol.getQualifierSymbol();
-    final CompletionProcessor processor = new CompletionProcessor(symbol, symbol.getKinds());
+    final CompletionProcessor processor = new CompletionProcessor(symbol, symbol.getKinds(), matcher,
+        new Consumer<PsiNamedElement>() {
+          public void consume(PsiNamedElement element) {
+            consumer.consume(new ClojureLookupItem(element));
+          }
+        });
     if (qualifier == null) {
       ResolveUtil.treeWalkUp(symbol, processor);
     } else {
@@ -43,21 +57,17 @@ public class CompleteSymbol {
       }
     }
 
-    final ClojureResolveResult[] candidates = processor.getCandidates();
-    if (candidates.length == 0) return PsiNamedElement.EMPTY_ARRAY;
-
-    // Add everything resolved
-    final PsiElement[] psiElements = ResolveUtil.mapToElements(candidates);
-    variants.addAll(Arrays.asList(mapToLookupItems(psiElements)));
+    if (!processor.hasCandidates()) return;
 
     // Add Java methods for all imported classes
     final boolean withoutDot = mayBeMethodReference(symbol);
     if (symbol.getChildren().length == 0 && symbol.getText().startsWith(".") ||
             withoutDot) {
-      addJavaMethods(psiElements, variants, withoutDot);
+      final MultiMap<String, PsiMethod> methodsByName = qualifier == null ?
+          AvailableJavaMethods.getInstance(symbol.getContainingFile()).getMethodsByName() :
+          collectAvailableMethods(processor.getProcessedClasses());
+      addJavaMethods(methodsByName, matcher, consumer, withoutDot);
     }
-
-    return variants.toArray(new Object[variants.size()]);
   }
 
   private static boolean isNamespaceLike(PsiElement element) {
@@ -72,73 +82,37 @@ public class CompleteSymbol {
     return false;
   }
 
-  private static LookupItem[] mapToLookupItems(PsiElement[] elements) {
-    final List<LookupItem> list = ContainerUtil.map(elements, new Function<PsiElement, LookupItem>() {
-      public LookupItem fun(PsiElement element) {
-        return new ClojureLookupItem(element);
-      }
-    });
-    return list.toArray(LookupItem.EMPTY_ARRAY);
-  }
-
-  private static void addJavaMethods(PsiElement[] psiElements, Collection<Object> variants, boolean withoutDot) {
-    final HashMap<MethodSignature, HashSet<PsiMethod>> sig2Methods = collectAvailableMethods(psiElements);
-
-    for (Map.Entry<MethodSignature, HashSet<PsiMethod>> entry : sig2Methods.entrySet()) {
-      final MethodSignature sig = entry.getKey();
-      final String name = sig.getName();
-
-      final StringBuffer buffer = new StringBuffer();
-      buffer.append(name).append("(");
-      buffer.append(StringUtil.join(ContainerUtil.map2Array(sig.getParameterTypes(), String.class, new Function<PsiType, String>() {
-        public String fun(PsiType psiType) {
-          return psiType.getPresentableText();
-        }
-      }), ", ")
-      ).append(")");
-
-      final String methodText = buffer.toString();
-
-      final StringBuffer tailBuffer = new StringBuffer();
-      tailBuffer.append(" in ");
-      final ArrayList<String> list = new ArrayList<String>();
-      for (PsiMethod method : entry.getValue()) {
-        final PsiClass clazz = method.getContainingClass();
-        if (clazz != null) {
-          list.add(clazz.getQualifiedName());
-        }
-      }
-      tailBuffer.append(StringUtil.join(list, ", "));
-
-      final LookupItem item = new LookupItem(methodText, (!withoutDot ? "." : "") + name);
-      item.setIcon(ClojureIcons.JAVA_METHOD);
-      item.setTailText(tailBuffer.toString(), true);
-
-      variants.add(item);
+  private static void addJavaMethods(MultiMap<String, PsiMethod> methodsByName, @Nullable PrefixMatcher matcher,
+                                     Consumer<LookupElement> consumer, boolean withoutDot) {
+    for (Map.Entry<String, Collection<PsiMethod>> entry : methodsByName.entrySet()) {
+      ProgressManager.checkCanceled();
+      final String lookupString = (!withoutDot ? "." : "") + entry.getKey();
+      if (matcher != null && !matcher.prefixMatches(lookupString)) continue;
+      consumer.consume(new JavaMethodLookupElement(lookupString, entry.getValue()));
     }
   }
 
-  public static HashMap<MethodSignature, HashSet<PsiMethod>> collectAvailableMethods(PsiElement[] psiElements) {
-    final HashMap<MethodSignature, HashSet<PsiMethod>> sig2Methods = new HashMap<MethodSignature, HashSet<PsiMethod>>();
+  /**
+   * @return public non-constructor methods of classes grouped by name
+   */
+  public static MultiMap<String, PsiMethod> collectAvailableMethods(PsiElement[] psiElements) {
+    final MultiMap<String, PsiMethod> methodsByName = new MultiMap<String, PsiMethod>() {
+      @Override
+      protected Collection<PsiMethod> createCollection() {
+        return new LinkedHashSet<PsiMethod>();
+      }
+    };
     for (PsiElement element : psiElements) {
       if (element instanceof PsiClass) {
         PsiClass clazz = (PsiClass) element;
         for (PsiMethod method : clazz.getAllMethods()) {
           if (!method.isConstructor() && method.hasModifierProperty(PsiModifier.PUBLIC)) {
-            final MethodSignature sig = method.getSignature(PsiSubstitutor.EMPTY);
-            final HashSet<PsiMethod> set = sig2Methods.get(sig);
-            if (set == null) {
-              final HashSet<PsiMethod> newSet = new HashSet<PsiMethod>();
-              newSet.add(method);
-              sig2Methods.put(sig, newSet);
-            } else {
-              set.add(method);
-            }
+            methodsByName.putValue(method.getName(), method);
           }
         }
       }
     }
-    return sig2Methods;
+    return methodsByName;
   }
 
 }
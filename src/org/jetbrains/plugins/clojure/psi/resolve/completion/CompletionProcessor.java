@@ -1,21 +1,77 @@
 package org.jetbrains.plugins.clojure.psi.resolve.completion;
 
+import com.intellij.codeInsight.completion.PrefixMatcher;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.psi.PsiClass;
 import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiNamedElement;
 import com.intellij.psi.ResolveState;
+import com.intellij.util.Consumer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.jetbrains.plugins.clojure.psi.resolve.processors.ResolveKind;
 import org.jetbrains.plugins.clojure.psi.resolve.processors.SymbolResolveProcessor;
 
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
 /**
+ * Passes completion candidates to the consumer as soon as they are found, skipping
+ * the ones not matching the prefix. Without a consumer it collects candidates as usual.
+ *
  * @author ilyas
  */
 public class CompletionProcessor extends SymbolResolveProcessor {
+  @Nullable private final PrefixMatcher myMatcher;
+  @Nullable private final Consumer<PsiNamedElement> myConsumer;
+  private final Set<PsiElement> myConsumed = new HashSet<PsiElement>();
+  private final Set<PsiClass> myClasses = new LinkedHashSet<PsiClass>();
+  private boolean myHasCandidates = false;
 
   public CompletionProcessor(PsiElement myPlace, ResolveKind[] kinds) {
+    this(myPlace, kinds, null, null);
+  }
+
+  public CompletionProcessor(PsiElement myPlace, ResolveKind[] kinds, @Nullable PrefixMatcher matcher,
+                             @Nullable Consumer<PsiNamedElement> consumer) {
     super(null, myPlace, true, kinds);
+    myMatcher = matcher;
+    myConsumer = consumer;
   }
 
   public boolean execute(PsiElement element, ResolveState state) {
-    super.execute(element, state);
+    ProgressManager.checkCanceled();
+    if (myConsumer == null) {
+      super.execute(element, state);
+      return true;
+    }
+
+    if (!(element instanceof PsiNamedElement) || !kindMatches((PsiNamedElement) element)) return true;
+    final PsiNamedElement namedElement = (PsiNamedElement) element;
+    myHasCandidates = true;
+    if (namedElement instanceof PsiClass) {
+      myClasses.add((PsiClass) namedElement);
+    }
+
+    final String name = namedElement.getName();
+    if (name == null || myMatcher != null && !myMatcher.prefixMatches(name)) return true;
+    if (myConsumed.add(namedElement)) {
+      myConsumer.consume(namedElement);
+    }
     return true;
   }
+
+  @Override
+  public boolean hasCandidates() {
+    return myHasCandidates || super.hasCandidates();
+  }
+
+  /**
+   * @return all classes met by a processor with consumer, whether they match the prefix or not
+   */
+  @NotNull
+  public PsiClass[] getProcessedClasses() {
+    return myClasses.toArray(new PsiClass[myClasses.size()]);
+  }
 }
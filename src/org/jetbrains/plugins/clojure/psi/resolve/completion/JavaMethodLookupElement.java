@@ -0,0 +1,110 @@
+package org.jetbrains.plugins.clojure.psi.resolve.completion;
+
+import com.intellij.codeInsight.lookup.LookupElement;
+import com.intellij.codeInsight.lookup.LookupElementPresentation;
+import com.intellij.codeInsight.lookup.LookupElementRenderer;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiMethod;
+import com.intellij.psi.PsiParameter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.plugins.clojure.ClojureIcons;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * One lookup element per Java method name. Parameter types and declaring classes
+ * are computed by the renderer on the first rendering of the element and kept for later ones.
+ * Methods with the same parameter types, e.g. overriding ones, count as one overload.
+ *
+ * @author ilyas
+ */
+public class JavaMethodLookupElement extends LookupElement {
+  private static final LookupElementRenderer<JavaMethodLookupElement> RENDERER = new LookupElementRenderer<JavaMethodLookupElement>() {
+    @Override
+    public void renderElement(JavaMethodLookupElement element, LookupElementPresentation presentation) {
+      presentation.setIcon(ClojureIcons.JAVA_METHOD);
+      presentation.setItemText(element.getLookupString());
+      final String[] tails = element.getTailTexts();
+      presentation.appendTailText(tails[0], false);
+      presentation.appendTailText(tails[1], true);
+    }
+  };
+
+  private final String myLookupString;
+  private final Collection<PsiMethod> myMethods;
+  private volatile String[] myTailTexts = null;
+
+  /**
+   * @param methods public methods with the same name, not inspected until the element is rendered
+   */
+  public JavaMethodLookupElement(@NotNull String lookupString, @NotNull Collection<PsiMethod> methods) {
+    myLookupString = lookupString;
+    myMethods = methods;
+  }
+
+  @NotNull
+  @Override
+  public String getLookupString() {
+    return myLookupString;
+  }
+
+  @NotNull
+  @Override
+  public Object getObject() {
+    return myMethods.isEmpty() ? myLookupString : myMethods.iterator().next();
+  }
+
+  @Override
+  public void renderElement(LookupElementPresentation presentation) {
+    RENDERER.renderElement(this, presentation);
+  }
+
+  /**
+   * @return parameter list of the first overload, and the number of other overloads with declaring classes
+   */
+  @NotNull
+  private String[] getTailTexts() {
+    String[] tails = myTailTexts;
+    if (tails == null) {
+      // overloads by parameter types, presentable parameter lists by canonical ones
+      final Map<String, String> parameterLists = new LinkedHashMap<String, String>();
+      final Set<String> classNames = new LinkedHashSet<String>();
+      for (PsiMethod method : myMethods) {
+        final PsiParameter[] parameters = method.getParameterList().getParameters();
+        final StringBuilder canonical = new StringBuilder();
+        final StringBuilder presentable = new StringBuilder("(");
+        for (int i = 0; i < parameters.length; i++) {
+          if (i > 0) {
+            canonical.append(',');
+            presentable.append(", ");
+          }
+          canonical.append(parameters[i].getType().getCanonicalText());
+          presentable.append(parameters[i].getType().getPresentableText());
+        }
+        if (!parameterLists.containsKey(canonical.toString())) {
+          parameterLists.put(canonical.toString(), presentable.append(')').toString());
+        }
+        final PsiClass clazz = method.getContainingClass();
+        if (clazz != null && clazz.getQualifiedName() != null) {
+          classNames.add(clazz.getQualifiedName());
+        }
+      }
+
+      final StringBuilder grayed = new StringBuilder();
+      if (parameterLists.size() > 1) {
+        grayed.append(" +").append(parameterLists.size() - 1).append(" overloads");
+      }
+      if (!classNames.isEmpty()) {
+        grayed.append(" in ").append(StringUtil.join(classNames, ", "));
+      }
+      tails = new String[]{parameterLists.isEmpty() ? "()" : parameterLists.values().iterator().next(), grayed.toString()};
+      myTailTexts = tails;
+    }
+    return tails;
+  }
+}
@@ -0,0 +1,74 @@
+package org.jetbrains.plugins.clojure.psi.resolve.completion;
+
+import com.intellij.codeInsight.completion.CompletionParameters;
+import com.intellij.codeInsight.completion.CompletionResultSet;
+import com.intellij.codeInsight.completion.PrioritizedLookupElement;
+import com.intellij.codeInsight.lookup.LookupElementBuilder;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.Processor;
+import com.intellij.util.indexing.FileBasedIndex;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.plugins.clojure.psi.api.ClKeyword;
+import org.jetbrains.plugins.clojure.psi.stubs.index.ClojureKeywordCountIndex;
+
+/**
+ * Completes keywords from {@link ClojureKeywordCountIndex}, most frequent first.
+ * Matching keys are added as they are found, if some file in scope still contains them.
+ * Occurrences are counted for the first {@link #MAX_COUNTED_KEYS} keys only, the rest are
+ * added unranked and ranked once the prefix is longer.
+ *
+ * @author ilyas
+ */
+public class KeywordCompletion {
+  private static final int MAX_COUNTED_KEYS = 200;
+
+  private static final FileBasedIndex.ValueProcessor<Integer> STOP_AT_FIRST_FILE = new FileBasedIndex.ValueProcessor<Integer>() {
+    public boolean process(VirtualFile file, Integer value) {
+      return false;
+    }
+  };
+
+  public static void addKeywords(@NotNull ClKeyword keyword, @NotNull CompletionParameters parameters,
+                                 @NotNull CompletionResultSet result) {
+    final int prefixLength = parameters.getOffset() - keyword.getTextRange().getStartOffset();
+    final String text = keyword.getText();
+    final String prefix = text.substring(0, Math.max(0, Math.min(prefixLength, text.length())));
+    final CompletionResultSet keywordResult = result.withPrefixMatcher(prefix);
+
+    final Project project = keyword.getProject();
+    final GlobalSearchScope scope = GlobalSearchScope.allScope(project);
+    final FileBasedIndex index = FileBasedIndex.getInstance();
+    index.processAllKeys(ClojureKeywordCountIndex.NAME, new Processor<String>() {
+      private int myCounted = 0;
+
+      public boolean process(String key) {
+        ProgressManager.checkCanceled();
+        if (!key.startsWith(prefix)) return true;
+
+        if (myCounted < MAX_COUNTED_KEYS) {
+          final int[] count = new int[1];
+          index.processValues(ClojureKeywordCountIndex.NAME, key, null, new FileBasedIndex.ValueProcessor<Integer>() {
+            public boolean process(VirtualFile file, Integer fileCount) {
+              count[0] += fileCount;
+              return true;
+            }
+          }, scope);
+          if (count[0] > 0) {
+            myCounted++;
+            keywordResult.addElement(PrioritizedLookupElement.withPriority(LookupElementBuilder.create(key), count[0]));
+          }
+        } else if (!index.processValues(ClojureKeywordCountIndex.NAME, key, null, STOP_AT_FIRST_FILE, scope)) {
+          if (myCounted++ == MAX_COUNTED_KEYS) {
+            // too many keys to rank, rank them once the prefix is longer
+            keywordResult.restartCompletionOnAnyPrefixChange();
+          }
+          keywordResult.addElement(LookupElementBuilder.create(key));
+        }
+        return true;
+      }
+    }, project);
+  }
+}
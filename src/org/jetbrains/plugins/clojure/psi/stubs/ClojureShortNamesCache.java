@@ -5,6 +5,8 @@ import com.intellij.psi.search.PsiShortNamesCache;
 import com.intellij.psi.search.GlobalSearchScope;
 import com.intellij.psi.search.FilenameIndex;
 import com.intellij.psi.stubs.StubIndex;
+import com.intellij.psi.stubs.StubIndexKey;
+import com.intellij.util.CommonProcessors;
 import com.intellij.util.Processor;
 import com.intellij.util.containers.HashSet;
 import com.intellij.util.containers.ContainerUtil;
@@ -16,13 +18,17 @@ import org.jetbrains.annotations.NonNls;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.plugins.clojure.psi.stubs.index.ClojureClassNameIndex;
 import org.jetbrains.plugins.clojure.psi.stubs.index.ClojureFullScriptNameIndex;
+import org.jetbrains.plugins.clojure.psi.stubs.index.ClojureGenClassFieldIndex;
+import org.jetbrains.plugins.clojure.psi.stubs.index.ClojureGenClassMethodIndex;
 import org.jetbrains.plugins.clojure.psi.stubs.index.ClojureNsNameIndex;
 import org.jetbrains.plugins.clojure.psi.api.ClojureFile;
 import org.jetbrains.plugins.clojure.psi.api.ns.ClNs;
+import org.jetbrains.plugins.clojure.psi.api.synthetic.ClSyntheticClass;
 import org.jetbrains.plugins.clojure.compiler.ClojureCompilerSettings;
 
 import java.util.Collection;
 import java.util.ArrayList;
+import java.util.Collections;
 
 /**
  * @author ilyas
@@ -55,7 +61,12 @@ public class ClojureShortNamesCache extends PsiShortNamesCache {
 
   @NotNull
   public PsiFile[] getFilesByName(@NotNull String name) {
-    return new PsiFile[0];
+    final PsiFile[] files = FilenameIndex.getFilesByName(myProject, name, GlobalSearchScope.allScope(myProject));
+    final ArrayList<PsiFile> result = new ArrayList<PsiFile>();
+    for (PsiFile file : files) {
+      if (file instanceof ClojureFile) result.add(file);
+    }
+    return result.toArray(new PsiFile[result.size()]);
   }
 
   @NotNull
@@ -111,43 +122,92 @@ public class ClojureShortNamesCache extends PsiShortNamesCache {
 
   @NotNull
   public PsiMethod[] getMethodsByName(@NonNls String name, @NotNull GlobalSearchScope scope) {
-    return new PsiMethod[0];
+    return getMethodsByNameIfNotMoreThan(name, scope, Integer.MAX_VALUE);
   }
 
   @NotNull
   public PsiMethod[] getMethodsByNameIfNotMoreThan(@NonNls String name, @NotNull GlobalSearchScope scope, int maxCount) {
-    return new PsiMethod[0];
+    final ArrayList<PsiMethod> result = new ArrayList<PsiMethod>();
+    processMethodsWithName(name, scope, new CommonProcessors.CollectProcessor<PsiMethod>(result), maxCount);
+    return result.toArray(new PsiMethod[result.size()]);
   }
 
   @Override
-  public boolean processMethodsWithName(@NonNls @NotNull String s, @NotNull GlobalSearchScope globalSearchScope, @NotNull Processor<PsiMethod> psiMethodProcessor) {
-    return false;
+  public boolean processMethodsWithName(@NonNls @NotNull String name, @NotNull GlobalSearchScope scope, @NotNull Processor<PsiMethod> processor) {
+    return processMethodsWithName(name, scope, processor, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Feeds gen-class methods named <code>name</code> to processor, at most <code>maxCount</code> of them
+   *
+   * @return false if the processor or the limit stopped the search
+   */
+  private boolean processMethodsWithName(String name, GlobalSearchScope scope, Processor<PsiMethod> processor, int maxCount) {
+    int count = 0;
+    for (ClSyntheticClass clazz : getGenClasses(ClojureGenClassMethodIndex.KEY, name, scope)) {
+      for (PsiMethod method : clazz.getGenClassMethods()) {
+        if (!name.equals(method.getName())) continue;
+        if (count++ >= maxCount || !processor.process(method)) return false;
+      }
+    }
+    return true;
   }
 
   @NotNull
   public String[] getAllMethodNames() {
-    return new String[0];
+    final Collection<String> names = getAllGenClassMemberNames(ClojureGenClassMethodIndex.KEY);
+    return names.toArray(new String[names.size()]);
   }
 
   public void getAllMethodNames(@NotNull HashSet<String> set) {
+    set.addAll(getAllGenClassMemberNames(ClojureGenClassMethodIndex.KEY));
   }
 
   @NotNull
   public PsiField[] getFieldsByName(@NotNull String name, @NotNull GlobalSearchScope scope) {
-    return new PsiField[0];
+    return getFieldsByNameIfNotMoreThan(name, scope, Integer.MAX_VALUE);
   }
 
   @NotNull
   public String[] getAllFieldNames() {
-    return new String[0];
+    final Collection<String> names = getAllGenClassMemberNames(ClojureGenClassFieldIndex.KEY);
+    return names.toArray(new String[names.size()]);
   }
 
   public void getAllFieldNames(@NotNull HashSet<String> set) {
+    set.addAll(getAllGenClassMemberNames(ClojureGenClassFieldIndex.KEY));
   }
 
   @NotNull
   @Override
-  public PsiField[] getFieldsByNameIfNotMoreThan(@NonNls @NotNull String s, @NotNull GlobalSearchScope globalSearchScope, int i) {
-    return new PsiField[0];
+  public PsiField[] getFieldsByNameIfNotMoreThan(@NonNls @NotNull String name, @NotNull GlobalSearchScope scope, int maxCount) {
+    final ArrayList<PsiField> result = new ArrayList<PsiField>();
+    for (ClSyntheticClass clazz : getGenClasses(ClojureGenClassFieldIndex.KEY, name, scope)) {
+      for (PsiField field : clazz.getGenClassFields()) {
+        if (!name.equals(field.getName())) continue;
+        if (result.size() >= maxCount) return result.toArray(new PsiField[result.size()]);
+        result.add(field);
+      }
+    }
+    return result.toArray(new PsiField[result.size()]);
+  }
+
+  private Collection<String> getAllGenClassMemberNames(StubIndexKey<String, ClojureFile> key) {
+    if (!areClassesCompiled()) return Collections.emptyList();
+    return StubIndex.getInstance().getAllKeys(key, myProject);
+  }
+
+  /**
+   * @return classes of files found by member name in one of the gen-class member indexes
+   */
+  private Collection<ClSyntheticClass> getGenClasses(StubIndexKey<String, ClojureFile> key, String name, GlobalSearchScope scope) {
+    if (!areClassesCompiled()) return Collections.emptyList();
+    final ArrayList<ClSyntheticClass> result = new ArrayList<ClSyntheticClass>();
+    for (ClojureFile file : StubIndex.getInstance().get(key, name, myProject, scope)) {
+      if (!file.isClassDefiningFile()) continue;
+      final PsiClass clazz = file.getDefinedClass();
+      if (clazz instanceof ClSyntheticClass) result.add((ClSyntheticClass) clazz);
+    }
+    return result;
   }
 }
@@ -0,0 +1,46 @@
+package org.jetbrains.plugins.clojure.psi.stubs;
+
+import com.intellij.util.containers.ConcurrentWeakHashMap;
+import com.intellij.util.io.StringRef;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Interns names of stubs, so that stubs of all open projects share one instance of each name.
+ * Plain string names (required namespaces, imported classes, interface and protocol method names)
+ * are interned on deserialization. Names kept as {@link StringRef} stay lazy and are interned by
+ * the stub getters on first access, so only names which are actually read are resolved.
+ * Entries are weak and go away together with the last stub using them.
+ *
+ * @author ilyas
+ */
+public class StubNames {
+  private static final ConcurrentMap<String, WeakReference<String>> ourNames = new ConcurrentWeakHashMap<String, WeakReference<String>>();
+
+  @Nullable
+  public static String intern(@Nullable String name) {
+    if (name == null) return null;
+    while (true) {
+      final WeakReference<String> ref = ourNames.get(name);
+      final String interned = ref == null ? null : ref.get();
+      if (interned != null) return interned;
+
+      final WeakReference<String> newRef = new WeakReference<String>(name);
+      if (ref == null ? ourNames.putIfAbsent(name, newRef) == null : ourNames.replace(name, ref, newRef)) {
+        return name;
+      }
+    }
+  }
+
+  /**
+   * @return <code>ref</code> if its string is interned already, otherwise a ref to the interned string
+   */
+  @Nullable
+  public static StringRef internRef(@Nullable StringRef ref) {
+    final String name = StringRef.toString(ref);
+    final String interned = intern(name);
+    return interned == name ? ref : StringRef.fromString(interned);
+  }
+}
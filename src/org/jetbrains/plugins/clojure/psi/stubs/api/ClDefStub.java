@@ -5,20 +5,43 @@ import com.intellij.psi.stubs.NamedStub;
 import com.intellij.psi.stubs.StubBase;
 import com.intellij.psi.stubs.StubElement;
 import com.intellij.util.io.StringRef;
+import org.jetbrains.annotations.Nullable;
 import org.jetbrains.plugins.clojure.psi.api.defs.ClDef;
-import org.jetbrains.plugins.clojure.psi.stubs.api.ClDefStub;
+import org.jetbrains.plugins.clojure.psi.stubs.StubNames;
 
 /**
  * @author ilyas
  */
 public class ClDefStub extends StubBase<ClDef> implements NamedStub<ClDef> {
-  private final StringRef myName;
+  public static final byte PRIVATE_FLAG = 0x01;
+  public static final byte MACRO_FLAG = 0x02;
+
+  private volatile StringRef myName;
   private final int myTextOffset;
+  private final StringRef myParameterString;
+  private final String myDocSummary;
+  private final byte myFlags;
+  private volatile StringRef myDefiner;
+  private final String[] myProtocolMethodNames;
 
-  public ClDefStub(StubElement parent, StringRef name, final IStubElementType elementType, int textOffset) {
+  public ClDefStub(StubElement parent, StringRef name, final IStubElementType elementType, int textOffset,
+                   StringRef parameterString, @Nullable String docSummary, byte flags,
+                   StringRef definer, String[] protocolMethodNames) {
     super(parent, elementType);
     myName = name;
     myTextOffset = textOffset;
+    myParameterString = parameterString;
+    myDocSummary = docSummary;
+    myFlags = flags;
+    myDefiner = definer;
+    myProtocolMethodNames = protocolMethodNames;
+  }
+
+  public static byte flags(ClDef def) {
+    byte flags = 0;
+    if (def.isPrivate()) flags |= PRIVATE_FLAG;
+    if (def.isMacro()) flags |= MACRO_FLAG;
+    return flags;
   }
 
   public int getTextOffset() {
@@ -26,7 +49,71 @@ public class ClDefStub extends StubBase<ClDef> implements NamedStub<ClDef> {
   }
 
   public String getName() {
-    return StringRef.toString(myName);
+    final StringRef name = StubNames.internRef(myName);
+    myName = name;
+    return StringRef.toString(name);
+  }
+
+  /**
+   * @return text of parameter vectors, e.g. <code>[x]</code> or <code>[x] [x y]</code> for multi-arity definitions
+   */
+  public String getParameterString() {
+    return StringRef.toString(myParameterString);
+  }
+
+  /**
+   * @return first line of the documentation string
+   */
+  @Nullable
+  public String getDocSummary() {
+    return myDocSummary;
+  }
+
+  public byte getFlags() {
+    return myFlags;
+  }
+
+  public boolean isPrivate() {
+    return (myFlags & PRIVATE_FLAG) != 0;
+  }
+
+  public boolean isMacro() {
+    return (myFlags & MACRO_FLAG) != 0;
+  }
+
+  /**
+   * @return head of the definition form, e.g. <code>defn</code> or <code>defprotocol</code>
+   */
+  public String getDefiner() {
+    final StringRef definer = StubNames.internRef(myDefiner);
+    myDefiner = definer;
+    return StringRef.toString(definer);
+  }
+
+  /**
+   * @return names of methods declared by <code>defprotocol</code>, empty for other definitions
+   */
+  public String[] getProtocolMethodNames() {
+    return myProtocolMethodNames;
+  }
+
+  /**
+   * @return name of the last namespace declared in the file before this definition
+   */
+  @Nullable
+  public String getNamespace() {
+    StubElement fileStub = this;
+    while (fileStub.getParentStub() != null) {
+      fileStub = fileStub.getParentStub();
+    }
+
+    String namespace = null;
+    for (Object child : fileStub.getChildrenStubs()) {
+      if (child instanceof ClNsStub && ((ClNsStub) child).getTextOffset() < myTextOffset) {
+        namespace = ((ClNsStub) child).getName();
+      }
+    }
+    return namespace;
   }
 
 }
\ No newline at end of file
@@ -2,6 +2,8 @@ package org.jetbrains.plugins.clojure.psi.stubs.api;
 
 import com.intellij.psi.stubs.PsiFileStub;
 import com.intellij.util.io.StringRef;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.jetbrains.plugins.clojure.psi.api.ClojureFile;
 
 /**
@@ -13,5 +15,28 @@ public interface ClFileStub extends PsiFileStub<ClojureFile> {
   StringRef getClassName();
 
   boolean isClassDefinition();
-}
 
+  /**
+   * @return class name after <code>:extends</code> of gen-class as written in the file
+   */
+  @Nullable
+  StringRef getSuperClassName();
+
+  /**
+   * @return class names after <code>:implements</code> of gen-class as written in the file
+   */
+  @NotNull
+  String[] getInterfaceNames();
+
+  /**
+   * @return Java headers of methods declared by <code>:methods</code> of gen-class
+   */
+  @NotNull
+  String[] getMethodSignatures();
+
+  /**
+   * @return name of the <code>:state</code> field of gen-class
+   */
+  @Nullable
+  StringRef getStateName();
+}
@@ -6,19 +6,24 @@ import com.intellij.psi.stubs.StubBase;
 import com.intellij.psi.stubs.StubElement;
 import com.intellij.util.io.StringRef;
 import org.jetbrains.plugins.clojure.psi.api.ns.ClNs;
-import org.jetbrains.plugins.clojure.psi.stubs.api.ClNsStub;
+import org.jetbrains.plugins.clojure.psi.stubs.StubNames;
 
 /**
  * @author ilyas
  */
 public class ClNsStub extends StubBase<ClNs> implements NamedStub<ClNs> {
-  private final StringRef myName;
+  private volatile StringRef myName;
   private final int myTextOffset;
+  private final String[] myRequiredNamespaces;
+  private final String[] myImportedClasses;
 
-  public ClNsStub(StubElement parent, StringRef name, final IStubElementType elementType, int textOffset) {
+  public ClNsStub(StubElement parent, StringRef name, final IStubElementType elementType, int textOffset,
+                  String[] requiredNamespaces, String[] importedClasses) {
     super(parent, elementType);
     myName = name;
     myTextOffset = textOffset;
+    myRequiredNamespaces = requiredNamespaces;
+    myImportedClasses = importedClasses;
   }
 
   public int getTextOffset() {
@@ -26,7 +31,23 @@ public class ClNsStub extends StubBase<ClNs> implements NamedStub<ClNs> {
   }
 
   public String getName() {
-    return StringRef.toString(myName);
+    final StringRef name = StubNames.internRef(myName);
+    myName = name;
+    return StringRef.toString(name);
+  }
+
+  /**
+   * @return namespaces loaded by require, use and refer directives of the ns form
+   */
+  public String[] getRequiredNamespaces() {
+    return myRequiredNamespaces;
+  }
+
+  /**
+   * @return qualified names of classes imported by the ns form
+   */
+  public String[] getImportedClasses() {
+    return myImportedClasses;
   }
 
 }
\ No newline at end of file
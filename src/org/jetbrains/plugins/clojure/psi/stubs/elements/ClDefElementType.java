@@ -3,8 +3,11 @@ package org.jetbrains.plugins.clojure.psi.stubs.elements;
 import org.jetbrains.plugins.clojure.psi.ClStubElementType;
 import org.jetbrains.plugins.clojure.psi.impl.defs.ClDefImpl;
 import org.jetbrains.plugins.clojure.psi.api.defs.ClDef;
+import org.jetbrains.plugins.clojure.psi.stubs.StubNames;
 import org.jetbrains.plugins.clojure.psi.stubs.api.ClDefStub;
+import org.jetbrains.plugins.clojure.psi.stubs.index.ClDefFqnIndex;
 import org.jetbrains.plugins.clojure.psi.stubs.index.ClDefNameIndex;
+import org.jetbrains.plugins.clojure.psi.stubs.index.ClProtocolMethodIndex;
 import org.jetbrains.plugins.clojure.parser.ClojureElementTypes;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.stubs.StubElement;
@@ -28,12 +31,31 @@ public class ClDefElementType extends ClStubElementType<ClDefStub, ClDef> {
   public void serialize(ClDefStub stub, StubOutputStream dataStream) throws IOException {
     dataStream.writeName(stub.getName());
     dataStream.writeInt(stub.getTextOffset());
+    dataStream.writeName(stub.getParameterString());
+    final String docSummary = stub.getDocSummary();
+    dataStream.writeUTFFast(docSummary == null ? "" : docSummary);
+    dataStream.writeByte(stub.getFlags());
+    dataStream.writeName(stub.getDefiner());
+    final String[] methodNames = stub.getProtocolMethodNames();
+    dataStream.writeVarInt(methodNames.length);
+    for (String methodName : methodNames) {
+      dataStream.writeName(methodName);
+    }
   }
 
   public ClDefStub deserialize(StubInputStream dataStream, StubElement parentStub) throws IOException {
     StringRef ref = dataStream.readName();
     int textOffset = dataStream.readInt();
-    return new ClDefStub(parentStub, ref, this, textOffset);
+    StringRef parameterString = dataStream.readName();
+    String docSummary = dataStream.readUTFFast();
+    byte flags = dataStream.readByte();
+    StringRef definer = dataStream.readName();
+    String[] methodNames = new String[dataStream.readVarInt()];
+    for (int i = 0; i < methodNames.length; i++) {
+      methodNames[i] = StubNames.intern(StringRef.toString(dataStream.readName()));
+    }
+    return new ClDefStub(parentStub, ref, this, textOffset, parameterString, docSummary.length() == 0 ? null : docSummary, flags,
+        definer, methodNames);
   }
 
   public PsiElement createElement(ASTNode node) {
@@ -45,7 +67,9 @@ public class ClDefElementType extends ClStubElementType<ClDefStub, ClDef> {
   }
 
   public ClDefStub createStub(ClDef psi, StubElement parentStub) {
-    return new ClDefStub(parentStub, StringRef.fromString(psi.getName()), ClojureElementTypes.DEF, psi.getTextOffset());
+    return new ClDefStub(parentStub, StringRef.fromString(psi.getName()), ClojureElementTypes.DEF, psi.getTextOffset(),
+        StringRef.fromString(psi.getParameterString()), psi.getDocSummary(), ClDefStub.flags(psi),
+        StringRef.fromString(psi.getDefiner()), psi.getProtocolMethodNames());
   }
 
   @Override
@@ -53,6 +77,18 @@ public class ClDefElementType extends ClStubElementType<ClDefStub, ClDef> {
     final String name = stub.getName();
     if (name != null) {
       sink.occurrence(ClDefNameIndex.KEY, name);
+      final String namespace = stub.getNamespace();
+      if (namespace != null) {
+        sink.occurrence(ClDefFqnIndex.KEY, ClDefFqnIndex.fqn(namespace, name));
+      }
+    }
+    // protocol methods are vars of the protocol namespace
+    final String namespace = stub.getNamespace();
+    for (String methodName : stub.getProtocolMethodNames()) {
+      sink.occurrence(ClProtocolMethodIndex.KEY, methodName);
+      if (namespace != null) {
+        sink.occurrence(ClDefFqnIndex.KEY, ClDefFqnIndex.fqn(namespace, methodName));
+      }
     }
   }
 }
@@ -1,16 +1,19 @@
 package org.jetbrains.plugins.clojure.psi.stubs.elements;
 
 import org.jetbrains.plugins.clojure.psi.stubs.api.ClDefStub;
+import org.jetbrains.plugins.clojure.psi.stubs.index.ClDefFqnIndex;
 import org.jetbrains.plugins.clojure.psi.stubs.index.ClDefNameIndex;
 import org.jetbrains.plugins.clojure.psi.api.defs.ClDef;
 import org.jetbrains.plugins.clojure.psi.ClStubElementType;
 import org.jetbrains.plugins.clojure.psi.impl.defs.ClDefnMethodImpl;
 import org.jetbrains.plugins.clojure.parser.ClojureElementTypes;
+import org.jetbrains.plugins.clojure.parser.ClojureSpecialFormTokens;
 import com.intellij.psi.stubs.StubOutputStream;
 import com.intellij.psi.stubs.StubInputStream;
 import com.intellij.psi.stubs.StubElement;
 import com.intellij.psi.stubs.IndexSink;
 import com.intellij.psi.PsiElement;
+import com.intellij.util.ArrayUtil;
 import com.intellij.util.io.StringRef;
 import com.intellij.lang.ASTNode;
 
@@ -20,6 +23,7 @@ import java.io.IOException;
  * @author ilyas
  */
 public class ClDefMethodElementType extends ClStubElementType<ClDefStub, ClDef> {
+  private static final StringRef DEFINER = StringRef.fromString(ClojureSpecialFormTokens.tDEFMETHOD);
 
   public ClDefMethodElementType() {
     super("defmethod");
@@ -28,12 +32,20 @@ public class ClDefMethodElementType extends ClStubElementType<ClDefStub, ClDef>
   public void serialize(ClDefStub stub, StubOutputStream dataStream) throws IOException {
     dataStream.writeName(stub.getName());
     dataStream.writeInt(stub.getTextOffset());
+    dataStream.writeName(stub.getParameterString());
+    final String docSummary = stub.getDocSummary();
+    dataStream.writeUTFFast(docSummary == null ? "" : docSummary);
+    dataStream.writeByte(stub.getFlags());
   }
 
   public ClDefStub deserialize(StubInputStream dataStream, StubElement parentStub) throws IOException {
     StringRef ref = dataStream.readName();
     int textOffset = dataStream.readInt();
-    return new ClDefStub(parentStub, ref, this, textOffset);
+    StringRef parameterString = dataStream.readName();
+    String docSummary = dataStream.readUTFFast();
+    byte flags = dataStream.readByte();
+    return new ClDefStub(parentStub, ref, this, textOffset, parameterString, docSummary.length() == 0 ? null : docSummary, flags,
+        DEFINER, ArrayUtil.EMPTY_STRING_ARRAY);
   }
 
   public PsiElement createElement(ASTNode node) {
@@ -45,7 +57,9 @@ public class ClDefMethodElementType extends ClStubElementType<ClDefStub, ClDef>
   }
 
   public ClDefStub createStub(ClDef psi, StubElement parentStub) {
-    return new ClDefStub(parentStub, StringRef.fromString(psi.getName()), ClojureElementTypes.DEFMETHOD, psi.getTextOffset());
+    return new ClDefStub(parentStub, StringRef.fromString(psi.getName()), ClojureElementTypes.DEFMETHOD, psi.getTextOffset(),
+        StringRef.fromString(psi.getParameterString()), psi.getDocSummary(), ClDefStub.flags(psi),
+        DEFINER, ArrayUtil.EMPTY_STRING_ARRAY);
   }
 
   @Override
@@ -53,6 +67,10 @@ public class ClDefMethodElementType extends ClStubElementType<ClDefStub, ClDef>
     final String name = stub.getName();
     if (name != null) {
       sink.occurrence(ClDefNameIndex.KEY, name);
+      final String namespace = stub.getNamespace();
+      if (namespace != null) {
+        sink.occurrence(ClDefFqnIndex.KEY, ClDefFqnIndex.fqn(namespace, name));
+      }
     }
   }
 }
@@ -5,11 +5,15 @@ import com.intellij.psi.stubs.*;
 import com.intellij.psi.tree.IStubFileElementType;
 import com.intellij.util.io.StringRef;
 import org.jetbrains.plugins.clojure.file.ClojureFileType;
+import org.jetbrains.plugins.clojure.psi.impl.synthetic.SynteticUtil;
 import org.jetbrains.plugins.clojure.psi.stubs.ClojureFileStubBuilder;
+import org.jetbrains.plugins.clojure.psi.stubs.StubNames;
 import org.jetbrains.plugins.clojure.psi.stubs.api.ClFileStub;
 import org.jetbrains.plugins.clojure.psi.stubs.impl.ClFileStubImpl;
 import org.jetbrains.plugins.clojure.psi.stubs.index.ClojureClassNameIndex;
 import org.jetbrains.plugins.clojure.psi.stubs.index.ClojureFullScriptNameIndex;
+import org.jetbrains.plugins.clojure.psi.stubs.index.ClojureGenClassFieldIndex;
+import org.jetbrains.plugins.clojure.psi.stubs.index.ClojureGenClassMethodIndex;
 
 import java.io.IOException;
 
@@ -17,7 +21,7 @@ import java.io.IOException;
  * @author ilyas
  */
 public class ClStubFileElementType extends IStubFileElementType<ClFileStub> {
-  private static final int CACHES_VERSION = 14;
+  private static final int CACHES_VERSION = 21;
 
   public ClStubFileElementType() {
     super(ClojureFileType.CLOJURE_LANGUAGE);
@@ -46,6 +50,20 @@ public class ClStubFileElementType extends IStubFileElementType<ClFileStub> {
     dataStream.writeName(stub.getPackageName().toString());
     dataStream.writeName(stub.getClassName().toString());
     dataStream.writeBoolean(stub.isClassDefinition());
+    if (stub.isClassDefinition()) {
+      dataStream.writeName(StringRef.toString(stub.getSuperClassName()));
+      dataStream.writeName(StringRef.toString(stub.getStateName()));
+      final String[] interfaceNames = stub.getInterfaceNames();
+      dataStream.writeVarInt(interfaceNames.length);
+      for (String interfaceName : interfaceNames) {
+        dataStream.writeName(interfaceName);
+      }
+      final String[] signatures = stub.getMethodSignatures();
+      dataStream.writeVarInt(signatures.length);
+      for (String signature : signatures) {
+        dataStream.writeUTFFast(signature);
+      }
+    }
   }
 
   @Override
@@ -53,7 +71,21 @@ public class ClStubFileElementType extends IStubFileElementType<ClFileStub> {
     StringRef packName = dataStream.readName();
     StringRef name = dataStream.readName();
     boolean isScript = dataStream.readBoolean();
-    return new ClFileStubImpl(packName, name, isScript);
+    if (!isScript) {
+      return new ClFileStubImpl(packName, name, false);
+    }
+
+    StringRef superClassName = dataStream.readName();
+    StringRef stateName = dataStream.readName();
+    final String[] interfaceNames = new String[dataStream.readVarInt()];
+    for (int i = 0; i < interfaceNames.length; i++) {
+      interfaceNames[i] = StubNames.intern(StringRef.toString(dataStream.readName()));
+    }
+    final String[] signatures = new String[dataStream.readVarInt()];
+    for (int i = 0; i < signatures.length; i++) {
+      signatures[i] = dataStream.readUTFFast();
+    }
+    return new ClFileStubImpl(packName, name, true, superClassName, interfaceNames, signatures, stateName);
   }
 
   public void indexStub(ClFileStub stub, IndexSink sink) {
@@ -63,6 +95,13 @@ public class ClStubFileElementType extends IStubFileElementType<ClFileStub> {
       final String pName = stub.getPackageName().toString();
       final String fqn = pName == null || pName.length() == 0 ? name : pName + "." + name;
       sink.occurrence(ClojureFullScriptNameIndex.KEY, fqn.hashCode());
+      for (String signature : stub.getMethodSignatures()) {
+        sink.occurrence(ClojureGenClassMethodIndex.KEY, SynteticUtil.getMethodName(signature));
+      }
+      final String stateName = StringRef.toString(stub.getStateName());
+      if (stateName != null) {
+        sink.occurrence(ClojureGenClassFieldIndex.KEY, stateName);
+      }
     }
   }
 
@@ -2,8 +2,6 @@ package org.jetbrains.plugins.clojure.psi.stubs.elements.ns;
 
 import com.intellij.lang.ASTNode;
 import com.intellij.psi.PsiElement;
-import com.intellij.psi.stubs.StubElement;
-import com.intellij.util.io.StringRef;
 import org.jetbrains.plugins.clojure.parser.ClojureElementTypes;
 import org.jetbrains.plugins.clojure.psi.api.ns.ClNs;
 import org.jetbrains.plugins.clojure.psi.impl.ns.ClNsImpl;
@@ -25,10 +23,4 @@ public class ClNsElementType extends ClNsElementTypeBase {
     return new ClNsImpl(stub, ClojureElementTypes.NS);
   }
 
-  public ClNsStub createStub(ClNs psi, StubElement parentStub) {
-    return new ClNsStub(parentStub, StringRef.fromString(psi.getDefinedName()), ClojureElementTypes.NS, psi.getTextOffset());
-  }
-
-
-
 }
\ No newline at end of file
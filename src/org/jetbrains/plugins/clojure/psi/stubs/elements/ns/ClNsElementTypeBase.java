@@ -5,14 +5,19 @@ import com.intellij.psi.stubs.StubElement;
 import com.intellij.psi.stubs.StubInputStream;
 import com.intellij.psi.stubs.StubOutputStream;
 import com.intellij.util.io.StringRef;
-import com.intellij.openapi.util.text.StringUtil;
 import org.jetbrains.plugins.clojure.psi.ClStubElementType;
+import com.intellij.util.ArrayUtil;
 import org.jetbrains.plugins.clojure.psi.api.ns.ClNs;
+import org.jetbrains.plugins.clojure.psi.impl.ImportOwner;
+import org.jetbrains.plugins.clojure.psi.stubs.StubNames;
 import org.jetbrains.plugins.clojure.psi.stubs.api.ClNsStub;
+import org.jetbrains.plugins.clojure.psi.stubs.index.ClojureNsImportIndex;
 import org.jetbrains.plugins.clojure.psi.stubs.index.ClojureNsNameIndex;
+import org.jetbrains.plugins.clojure.psi.stubs.index.ClojureNsRequireIndex;
 
 import java.io.IOException;
-import java.util.List;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 /**
  * @author ilyas
@@ -23,30 +28,57 @@ public abstract class ClNsElementTypeBase extends ClStubElementType<ClNsStub, Cl
     super(dName);
   }
 
+  public ClNsStub createStub(ClNs psi, StubElement parentStub) {
+    final Set<String> namespaces = new LinkedHashSet<String>();
+    final Set<String> classes = new LinkedHashSet<String>();
+    ImportOwner.collectDependencies(psi, namespaces, classes);
+    return new ClNsStub(parentStub, StringRef.fromString(psi.getDefinedName()), this, psi.getTextOffset(),
+        ArrayUtil.toStringArray(namespaces), ArrayUtil.toStringArray(classes));
+  }
+
   public void serialize(ClNsStub stub, StubOutputStream dataStream) throws IOException {
     dataStream.writeName(stub.getName());
     dataStream.writeInt(stub.getTextOffset());
+    writeNames(stub.getRequiredNamespaces(), dataStream);
+    writeNames(stub.getImportedClasses(), dataStream);
   }
 
   public ClNsStub deserialize(StubInputStream dataStream, StubElement parentStub) throws IOException {
     StringRef ref = dataStream.readName();
     int textOffset = dataStream.readInt();
-    return new ClNsStub(parentStub, ref, this, textOffset);
+    String[] requiredNamespaces = readNames(dataStream);
+    String[] importedClasses = readNames(dataStream);
+    return new ClNsStub(parentStub, ref, this, textOffset, requiredNamespaces, importedClasses);
+  }
+
+  private static void writeNames(String[] names, StubOutputStream dataStream) throws IOException {
+    dataStream.writeVarInt(names.length);
+    for (String name : names) {
+      dataStream.writeName(name);
+    }
+  }
+
+  private static String[] readNames(StubInputStream dataStream) throws IOException {
+    final String[] names = new String[dataStream.readVarInt()];
+    for (int i = 0; i < names.length; i++) {
+      names[i] = StubNames.intern(StringRef.toString(dataStream.readName()));
+    }
+    return names;
   }
 
   @Override
   public void indexStub(ClNsStub stub, IndexSink sink) {
     final String name = stub.getName();
     if (name != null && name.trim().length() > 0) {
-      final List<String> parcels = StringUtil.split(name, ".");
-      final StringBuffer buffer = new StringBuffer();
-      buffer.append(parcels.remove(0));
-      sink.occurrence(ClojureNsNameIndex.KEY, buffer.toString());
-      
-      for (String parcel : parcels) {
-        buffer.append(".").append(parcel);
-        sink.occurrence(ClojureNsNameIndex.KEY, buffer.toString());
-      }
+      // dotted prefixes are listed by ClojureTopLevelNamesIndex only
+      sink.occurrence(ClojureNsNameIndex.KEY, name);
+    }
+
+    for (String namespace : stub.getRequiredNamespaces()) {
+      sink.occurrence(ClojureNsRequireIndex.KEY, namespace);
+    }
+    for (String className : stub.getImportedClasses()) {
+      sink.occurrence(ClojureNsImportIndex.KEY, className);
     }
   }
 }
\ No newline at end of file
@@ -2,9 +2,14 @@ package org.jetbrains.plugins.clojure.psi.stubs.impl;
 
 import com.intellij.psi.stubs.PsiFileStubImpl;
 import com.intellij.psi.tree.IStubFileElementType;
+import com.intellij.util.ArrayUtil;
 import com.intellij.util.io.StringRef;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.jetbrains.plugins.clojure.parser.ClojureElementTypes;
 import org.jetbrains.plugins.clojure.psi.api.ClojureFile;
+import org.jetbrains.plugins.clojure.psi.api.ns.ClNs;
+import org.jetbrains.plugins.clojure.psi.impl.synthetic.SynteticUtil;
 import org.jetbrains.plugins.clojure.psi.stubs.api.ClFileStub;
 
 /**
@@ -14,19 +19,37 @@ public class ClFileStubImpl extends PsiFileStubImpl<ClojureFile> implements ClFi
   private final StringRef myPackageName;
   private final StringRef myClassName;
   private final boolean isClassDefinition;
+  private final StringRef mySuperClassName;
+  private final String[] myInterfaceNames;
+  private final String[] myMethodSignatures;
+  private final StringRef myStateName;
 
   public ClFileStubImpl(ClojureFile file) {
     super(file);
     myPackageName = StringRef.fromString(file.getPackageName());
     isClassDefinition = file.isClassDefiningFile();
     myClassName = StringRef.fromString(file.getClassName());
+    final ClNs ns = isClassDefinition ? file.getNamespaceElement() : null;
+    mySuperClassName = StringRef.fromString(SynteticUtil.getGenClassSuperName(ns));
+    myInterfaceNames = SynteticUtil.getGenClassInterfaceNames(ns);
+    myMethodSignatures = SynteticUtil.getGenClassMethodSignatures(ns);
+    myStateName = StringRef.fromString(SynteticUtil.getGenClassStateName(ns));
   }
 
   public ClFileStubImpl(StringRef packName, StringRef name, boolean isScript) {
+    this(packName, name, isScript, null, ArrayUtil.EMPTY_STRING_ARRAY, ArrayUtil.EMPTY_STRING_ARRAY, null);
+  }
+
+  public ClFileStubImpl(StringRef packName, StringRef name, boolean isScript, StringRef superClassName,
+                        String[] interfaceNames, String[] methodSignatures, StringRef stateName) {
     super(null);
     myPackageName = packName;
     myClassName = name;
     this.isClassDefinition = isScript;
+    mySuperClassName = superClassName;
+    myInterfaceNames = interfaceNames;
+    myMethodSignatures = methodSignatures;
+    myStateName = stateName;
   }
 
   public IStubFileElementType getType() {
@@ -44,4 +67,24 @@ public class ClFileStubImpl extends PsiFileStubImpl<ClojureFile> implements ClFi
   public boolean isClassDefinition() {
     return isClassDefinition;
   }
-}
\ No newline at end of file
+
+  @Nullable
+  public StringRef getSuperClassName() {
+    return mySuperClassName;
+  }
+
+  @NotNull
+  public String[] getInterfaceNames() {
+    return myInterfaceNames;
+  }
+
+  @NotNull
+  public String[] getMethodSignatures() {
+    return myMethodSignatures;
+  }
+
+  @Nullable
+  public StringRef getStateName() {
+    return myStateName;
+  }
+}
@@ -0,0 +1,29 @@
+package org.jetbrains.plugins.clojure.psi.stubs.index;
+
+import com.intellij.psi.stubs.StringStubIndexExtension;
+import com.intellij.psi.stubs.StubIndexKey;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.plugins.clojure.psi.api.defs.ClDef;
+
+/**
+ * Index of definitions by their namespace qualified name, e.g. <code>clojure.string/join</code>
+ *
+ * @author ilyas
+ */
+public class ClDefFqnIndex extends StringStubIndexExtension<ClDef> {
+  public static final StubIndexKey<String, ClDef> KEY = StubIndexKey.createIndexKey("clj.def.fqn");
+
+  public StubIndexKey<String, ClDef> getKey() {
+    return KEY;
+  }
+
+  @Override
+  public int getVersion() {
+    return ClojureIndexVersion.VERSION;
+  }
+
+  @NotNull
+  public static String fqn(@NotNull String namespace, @NotNull String name) {
+    return namespace + "/" + name;
+  }
+}
@@ -0,0 +1,23 @@
+package org.jetbrains.plugins.clojure.psi.stubs.index;
+
+import com.intellij.psi.stubs.StringStubIndexExtension;
+import com.intellij.psi.stubs.StubIndexKey;
+import org.jetbrains.plugins.clojure.psi.api.defs.ClDef;
+
+/**
+ * Index of <code>defprotocol</code> definitions by names of their methods
+ *
+ * @author ilyas
+ */
+public class ClProtocolMethodIndex extends StringStubIndexExtension<ClDef> {
+  public static final StubIndexKey<String, ClDef> KEY = StubIndexKey.createIndexKey("clj.protocol.method");
+
+  public StubIndexKey<String, ClDef> getKey() {
+    return KEY;
+  }
+
+  @Override
+  public int getVersion() {
+    return ClojureIndexVersion.VERSION;
+  }
+}
@@ -0,0 +1,23 @@
+package org.jetbrains.plugins.clojure.psi.stubs.index;
+
+import com.intellij.psi.stubs.StringStubIndexExtension;
+import com.intellij.psi.stubs.StubIndexKey;
+import org.jetbrains.plugins.clojure.psi.api.ClojureFile;
+
+/**
+ * Files by names of fields declared in their gen-class
+ *
+ * @author ilyas
+ */
+public class ClojureGenClassFieldIndex extends StringStubIndexExtension<ClojureFile> {
+  public static final StubIndexKey<String, ClojureFile> KEY = StubIndexKey.createIndexKey("clj.genclass.field");
+
+  public StubIndexKey<String, ClojureFile> getKey() {
+    return KEY;
+  }
+
+  @Override
+  public int getVersion() {
+    return ClojureIndexVersion.VERSION;
+  }
+}
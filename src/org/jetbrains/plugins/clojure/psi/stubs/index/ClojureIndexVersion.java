@@ -4,5 +4,5 @@ package org.jetbrains.plugins.clojure.psi.stubs.index;
  * @author ilyas
  */
 public class ClojureIndexVersion {
-  static int VERSION = 4;
+  static int VERSION = 10;
 }
@@ -0,0 +1,92 @@
+package org.jetbrains.plugins.clojure.psi.stubs.index;
+
+import com.intellij.lexer.Lexer;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.plugins.clojure.file.ClojureFileType;
+import org.jetbrains.plugins.clojure.lexer.ClojureFlexLexer;
+import org.jetbrains.plugins.clojure.lexer.ClojureTokenTypes;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Number of occurrences of each keyword per file, collected from the lexer tokens.
+ *
+ * @author ilyas
+ */
+public class ClojureKeywordCountIndex extends FileBasedIndexExtension<String, Integer> {
+  public static final ID<String, Integer> NAME = ID.create("clj.keyword.count");
+
+  private static final DataExternalizer<Integer> COUNT_EXTERNALIZER = new DataExternalizer<Integer>() {
+    public void save(DataOutput out, Integer value) throws IOException {
+      out.writeInt(value);
+    }
+
+    public Integer read(DataInput in) throws IOException {
+      return in.readInt();
+    }
+  };
+
+  private static final FileBasedIndex.InputFilter CLOJURE_FILES = new FileBasedIndex.InputFilter() {
+    public boolean acceptInput(VirtualFile file) {
+      return file.getFileType() == ClojureFileType.CLOJURE_FILE_TYPE;
+    }
+  };
+
+  private static final DataIndexer<String, Integer, FileContent> INDEXER = new DataIndexer<String, Integer, FileContent>() {
+    @NotNull
+    public Map<String, Integer> map(FileContent inputData) {
+      final Map<String, Integer> counts = new HashMap<String, Integer>();
+      final CharSequence text = inputData.getContentAsText();
+      final Lexer lexer = new ClojureFlexLexer();
+      lexer.start(text);
+      while (lexer.getTokenType() != null) {
+        if (lexer.getTokenType() == ClojureTokenTypes.COLON_SYMBOL) {
+          final String keyword = text.subSequence(lexer.getTokenStart(), lexer.getTokenEnd()).toString();
+          final Integer count = counts.get(keyword);
+          counts.put(keyword, count == null ? 1 : count + 1);
+        }
+        lexer.advance();
+      }
+      return counts;
+    }
+  };
+
+  @NotNull
+  public ID<String, Integer> getName() {
+    return NAME;
+  }
+
+  @NotNull
+  public DataIndexer<String, Integer, FileContent> getIndexer() {
+    return INDEXER;
+  }
+
+  public KeyDescriptor<String> getKeyDescriptor() {
+    return new EnumeratorStringDescriptor();
+  }
+
+  public DataExternalizer<Integer> getValueExternalizer() {
+    return COUNT_EXTERNALIZER;
+  }
+
+  public FileBasedIndex.InputFilter getInputFilter() {
+    return CLOJURE_FILES;
+  }
+
+  public boolean dependsOnFileContent() {
+    return true;
+  }
+
+  public int getVersion() {
+    return ClojureIndexVersion.VERSION;
+  }
+}
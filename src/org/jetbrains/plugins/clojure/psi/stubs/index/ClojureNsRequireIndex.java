@@ -0,0 +1,23 @@
+package org.jetbrains.plugins.clojure.psi.stubs.index;
+
+import com.intellij.psi.stubs.StringStubIndexExtension;
+import com.intellij.psi.stubs.StubIndexKey;
+import org.jetbrains.plugins.clojure.psi.api.ns.ClNs;
+
+/**
+ * Index of namespace forms by namespaces they require, use or refer, answers "who requires X"
+ *
+ * @author ilyas
+ */
+public class ClojureNsRequireIndex extends StringStubIndexExtension<ClNs> {
+  public static final StubIndexKey<String, ClNs> KEY = StubIndexKey.createIndexKey("clj.ns.require");
+
+  public StubIndexKey<String, ClNs> getKey() {
+    return KEY;
+  }
+
+  @Override
+  public int getVersion() {
+    return ClojureIndexVersion.VERSION;
+  }
+}
@@ -0,0 +1,286 @@
+package org.jetbrains.plugins.clojure.psi.stubs.index;
+
+import com.intellij.lexer.Lexer;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.tree.IElementType;
+import com.intellij.util.Processor;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.plugins.clojure.file.ClojureFileType;
+import org.jetbrains.plugins.clojure.lexer.ClojureFlexLexer;
+import org.jetbrains.plugins.clojure.lexer.ClojureTokenTypes;
+import org.jetbrains.plugins.clojure.parser.ClojureParser;
+import org.jetbrains.plugins.clojure.parser.ClojureSpecialFormTokens;
+
+import java.util.*;
+
+/**
+ * Names of top-level namespaces and definitions, recognized from the lexer tokens without parsing.
+ * This is the only index listing names: the namespace trie and Go to Symbol read their keys here,
+ * while {@link ClojureNsNameIndex}, {@link ClDefNameIndex} and {@link ClDefFqnIndex} are only
+ * queried by exact name. Namespace prefixes like <code>clojure</code> are kept here only.
+ *
+ * @author ilyas
+ */
+public class ClojureTopLevelNamesIndex extends ScalarIndexExtension<String> {
+  public static final ID<String, Void> NAME = ID.create("clj.toplevel.names");
+
+  private static final String NS_PREFIX = "ns:";
+  private static final String DEF_PREFIX = "def:";
+  private static final String FQN_PREFIX = "fqn:";
+
+  private static final FileBasedIndex.InputFilter CLOJURE_FILES = new FileBasedIndex.InputFilter() {
+    public boolean acceptInput(VirtualFile file) {
+      return file.getFileType() == ClojureFileType.CLOJURE_FILE_TYPE;
+    }
+  };
+
+  private static final FileBasedIndex.ValueProcessor<Void> STOP_AT_FIRST_FILE = new FileBasedIndex.ValueProcessor<Void>() {
+    public boolean process(VirtualFile file, Void value) {
+      return false;
+    }
+  };
+
+  private static final DataIndexer<String, Void, FileContent> INDEXER = new DataIndexer<String, Void, FileContent>() {
+    @NotNull
+    public Map<String, Void> map(FileContent inputData) {
+      final Map<String, Void> result = new HashMap<String, Void>();
+      new TopLevelScanner(inputData.getContentAsText(), result).scan();
+      return result;
+    }
+  };
+
+  /**
+   * @return namespace names and all their dotted prefixes declared in files of the project and its libraries
+   */
+  @NotNull
+  public static Collection<String> getNamespaceNames(@NotNull Project project) {
+    return getNames(project, NS_PREFIX, GlobalSearchScope.allScope(project));
+  }
+
+  /**
+   * @return short names of definitions in <code>scope</code>, as in {@link ClDefNameIndex}
+   */
+  @NotNull
+  public static Collection<String> getDefinitionNames(@NotNull Project project, @NotNull GlobalSearchScope scope) {
+    return getNames(project, DEF_PREFIX, scope);
+  }
+
+  /**
+   * @return namespace qualified names of definitions in <code>scope</code>, as in {@link ClDefFqnIndex}
+   */
+  @NotNull
+  public static Collection<String> getQualifiedDefinitionNames(@NotNull Project project, @NotNull GlobalSearchScope scope) {
+    return getNames(project, FQN_PREFIX, scope);
+  }
+
+  /**
+   * Keys of all projects are enumerated, and keys of changed or deleted files may linger,
+   * so every key is checked to still have a file in <code>scope</code>
+   */
+  private static Collection<String> getNames(Project project, final String prefix, GlobalSearchScope scope) {
+    final FileBasedIndex index = FileBasedIndex.getInstance();
+    final List<String> keys = new ArrayList<String>();
+    index.processAllKeys(NAME, new Processor<String>() {
+      public boolean process(String key) {
+        if (key.startsWith(prefix)) {
+          keys.add(key);
+        }
+        return true;
+      }
+    }, project);
+
+    final Set<String> result = new HashSet<String>();
+    for (String key : keys) {
+      ProgressManager.checkCanceled();
+      if (!index.processValues(NAME, key, null, STOP_AT_FIRST_FILE, scope)) {
+        result.add(key.substring(prefix.length()));
+      }
+    }
+    return result;
+  }
+
+  @NotNull
+  public ID<String, Void> getName() {
+    return NAME;
+  }
+
+  @NotNull
+  public DataIndexer<String, Void, FileContent> getIndexer() {
+    return INDEXER;
+  }
+
+  public KeyDescriptor<String> getKeyDescriptor() {
+    return new EnumeratorStringDescriptor();
+  }
+
+  public FileBasedIndex.InputFilter getInputFilter() {
+    return CLOJURE_FILES;
+  }
+
+  public boolean dependsOnFileContent() {
+    return true;
+  }
+
+  public int getVersion() {
+    return ClojureIndexVersion.VERSION;
+  }
+
+  /**
+   * Recognizes <code>(ns x)</code>, <code>(in-ns 'x)</code>, <code>(create-ns 'x)</code> and
+   * <code>(def* name ...)</code> at paren depth zero, and method names of protocols
+   */
+  private static class TopLevelScanner {
+    private final CharSequence myText;
+    private final Map<String, Void> myResult;
+    private final Lexer myLexer = new ClojureFlexLexer();
+    private String myNamespace;
+
+    private TopLevelScanner(CharSequence text, Map<String, Void> result) {
+      myText = text;
+      myResult = result;
+    }
+
+    private void scan() {
+      myLexer.start(myText);
+      int depth = 0;
+      while (myLexer.getTokenType() != null) {
+        final IElementType type = myLexer.getTokenType();
+        if (depth == 0 && type == ClojureTokenTypes.LEFT_PAREN) {
+          myLexer.advance();
+          depth++;
+          scanTopLevelForm();
+          continue;
+        }
+        if (isOpening(type)) depth++;
+        else if (isClosing(type) && depth > 0) depth--;
+        myLexer.advance();
+      }
+    }
+
+    /**
+     * Enter: lexer is pointed after the opening paren of a top-level form.
+     * Exit: lexer is pointed at a token of the form, the caller goes on counting parens from there.
+     */
+    private void scanTopLevelForm() {
+      skipInsignificant();
+      final String head = readSymbol();
+      if (head == null) return;
+
+      if (ClojureSpecialFormTokens.DEF_TOKENS.contains(head)) {
+        final String name = readNameAfterMetadata();
+        if (name != null) {
+          addDefinition(name);
+          if (ClojureSpecialFormTokens.tDEFPROTOCOL.equals(head)) {
+            scanProtocolMethods();
+          }
+        }
+      } else if (ClojureParser.NS_TOKENS.contains(head)) {
+        skipInsignificant();
+        if (myLexer.getTokenType() == ClojureTokenTypes.QUOTE) {
+          myLexer.advance();
+        }
+        final String name = readNameAfterMetadata();
+        if (name != null && name.length() > 0) {
+          myNamespace = name;
+          int dot = name.indexOf('.');
+          while (dot > 0) {
+            myResult.put(NS_PREFIX + name.substring(0, dot), null);
+            dot = name.indexOf('.', dot + 1);
+          }
+          myResult.put(NS_PREFIX + name, null);
+        }
+      }
+    }
+
+    private void addDefinition(String name) {
+      myResult.put(DEF_PREFIX + name, null);
+      if (myNamespace != null) {
+        myResult.put(FQN_PREFIX + ClDefFqnIndex.fqn(myNamespace, name), null);
+      }
+    }
+
+    /**
+     * Reads method names of <code>(defprotocol P (m [this]) ...)</code>, stops at the closing paren of the protocol
+     */
+    private void scanProtocolMethods() {
+      int depth = 0;
+      while (myLexer.getTokenType() != null) {
+        final IElementType type = myLexer.getTokenType();
+        if (isClosing(type)) {
+          if (depth == 0) return;
+          depth--;
+        } else if (isOpening(type)) {
+          depth++;
+          if (depth == 1 && type == ClojureTokenTypes.LEFT_PAREN) {
+            myLexer.advance();
+            skipInsignificant();
+            final String method = readSymbol();
+            if (method != null) addDefinition(method);
+            continue;
+          }
+        }
+        myLexer.advance();
+      }
+    }
+
+    @Nullable
+    private String readNameAfterMetadata() {
+      skipInsignificant();
+      while (myLexer.getTokenType() == ClojureTokenTypes.UP || myLexer.getTokenType() == ClojureTokenTypes.SHARPUP) {
+        myLexer.advance();
+        skipInsignificant();
+        skipForm();
+        skipInsignificant();
+      }
+      return readSymbol();
+    }
+
+    /**
+     * Skips a symbol, a keyword or a balanced form (metadata map)
+     */
+    private void skipForm() {
+      if (readSymbol() != null || isClosing(myLexer.getTokenType())) return;
+      int depth = 0;
+      do {
+        final IElementType type = myLexer.getTokenType();
+        if (isOpening(type)) depth++;
+        else if (isClosing(type)) depth--;
+        myLexer.advance();
+      } while (depth > 0 && myLexer.getTokenType() != null);
+    }
+
+    @Nullable
+    private String readSymbol() {
+      if (!ClojureTokenTypes.ATOMS.contains(myLexer.getTokenType())) return null;
+      final int start = myLexer.getTokenStart();
+      int end = start;
+      while (ClojureTokenTypes.ATOMS.contains(myLexer.getTokenType())) {
+        end = myLexer.getTokenEnd();
+        myLexer.advance();
+      }
+      return myText.subSequence(start, end).toString();
+    }
+
+    private void skipInsignificant() {
+      while (ClojureTokenTypes.WHITESPACE_SET.contains(myLexer.getTokenType()) ||
+          ClojureTokenTypes.COMMENTS.contains(myLexer.getTokenType())) {
+        myLexer.advance();
+      }
+    }
+
+    private static boolean isOpening(IElementType type) {
+      return type == ClojureTokenTypes.LEFT_PAREN || type == ClojureTokenTypes.LEFT_SQUARE || type == ClojureTokenTypes.LEFT_CURLY;
+    }
+
+    private static boolean isClosing(IElementType type) {
+      return type == ClojureTokenTypes.RIGHT_PAREN || type == ClojureTokenTypes.RIGHT_SQUARE || type == ClojureTokenTypes.RIGHT_CURLY;
+    }
+  }
+}
@@ -7,6 +7,8 @@ public abstract class ClojureKeywords {
   public static final String GEN_CLASS = ":gen-class";
   public static final String EXTENDS = ":extends";
   public static final String IMPLEMENTS = ":implements";
+  public static final String METHODS = ":methods";
+  public static final String STATE = ":state";
   public static final String IMPORT= ":import";
   public static final String REQUIRE = ":require";
   public static final String REFER = ":refer";
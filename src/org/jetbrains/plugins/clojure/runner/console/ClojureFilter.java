@@ -16,6 +16,9 @@ import com.intellij.ide.util.PsiElementListCellRenderer;
 import com.intellij.ide.DataManager;
 
 import javax.swing.*;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
 import java.util.regex.Pattern;
 import java.util.regex.Matcher;
 
@@ -45,7 +48,9 @@ public class ClojureFilter implements Filter {
         final int textStartOffset = entireLength - line.length();
 
         final PsiShortNamesCache cache = PsiShortNamesCache.getInstance(myProject);
-        final PsiFile[] psiFiles = cache.getFilesByName(fileName);
+        // Java and Clojure caches may both report the same project file
+        final Set<PsiFile> fileSet = new LinkedHashSet<PsiFile>(Arrays.asList(cache.getFilesByName(fileName)));
+        final PsiFile[] psiFiles = fileSet.toArray(new PsiFile[fileSet.size()]);
 
         if (psiFiles.length == 0) return null;
 
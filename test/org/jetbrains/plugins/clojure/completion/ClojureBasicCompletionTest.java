@@ -1,6 +1,12 @@
 package org.jetbrains.plugins.clojure.completion;
 
+import com.intellij.codeInsight.lookup.LookupElement;
+import org.jetbrains.plugins.clojure.psi.resolve.completion.ClojureCompletionStatistics;
+import org.jetbrains.plugins.clojure.psi.resolve.completion.ClojureVarCompletionIndex;
+import org.jetbrains.plugins.clojure.psi.resolve.completion.ClojureVarCompletionIndex.VarEntry;
+
 import java.io.IOException;
+import java.util.List;
 
 /**
  * @author Alefas
@@ -14,4 +20,95 @@ public class ClojureBasicCompletionTest extends ClojureCompletionTestBase {
     final CompleteResult complete = complete();
     assertNull(complete);
   }
+
+  public void testVarIndexPrefix() throws IOException {
+    configureFromFileText("dummy.clj", "(ns main)");
+    final ClojureVarCompletionIndex index = ClojureVarCompletionIndex.getInstance(getProject());
+    index.updateNow();
+    final List<VarEntry> vars = index.getVars("prewalk-");
+    boolean found = false;
+    for (VarEntry entry : vars) {
+      assertTrue(entry.getName(), entry.getName().startsWith("prewalk-"));
+      found |= "prewalk-replace".equals(entry.getName()) && "clojure.walk".equals(entry.getNamespace());
+    }
+    assertTrue(found);
+  }
+
+  public void testAutoRequire() throws IOException {
+    String fileText =
+        "(ns main\n" +
+            "  (:require clojure.string ; strings\n" +
+            "  ))\n" +
+            "(postwalk-rep<caret>)";
+    configureFromFileText("dummy.clj", fileText);
+    ClojureVarCompletionIndex.getInstance(getProject()).updateNow();
+    final CompleteResult complete = complete();
+    if (complete != null) {
+      LookupElement walk = null;
+      for (LookupElement element : complete.getElements()) {
+        if (element.getObject() instanceof VarEntry && "clojure.walk".equals(((VarEntry) element.getObject()).getNamespace())) {
+          walk = element;
+        }
+      }
+      assertNotNull(walk);
+      completeLookupItem(walk);
+    }
+    String resultText =
+        "(ns main\n" +
+            "  (:require clojure.string clojure.walk ; strings\n" +
+            "  ))\n" +
+            "(clojure.walk/postwalk-replace<caret>)";
+    checkResultByText(resultText);
+  }
+
+  public void testKeyword() throws IOException {
+    String fileText =
+        "(def m {:foobar 1 :foobar 2 :foobaz 3})\n" +
+            "(:fooba<caret>)";
+    configureFromFileText("dummy.clj", fileText);
+    final CompleteResult complete = complete();
+    assertNotNull(complete);
+    LookupElement foobaz = null;
+    boolean foobar = false;
+    for (LookupElement element : complete.getElements()) {
+      assertTrue(element.getLookupString(), element.getLookupString().startsWith(":fooba"));
+      foobar |= ":foobar".equals(element.getLookupString());
+      if (":foobaz".equals(element.getLookupString())) foobaz = element;
+    }
+    assertTrue(foobar);
+    assertNotNull(foobaz);
+    completeLookupItem(foobaz);
+    String resultText =
+        "(def m {:foobar 1 :foobar 2 :foobaz 3})\n" +
+            "(:foobaz<caret>)";
+    checkResultByText(resultText);
+  }
+
+  public void testAcceptedVarFirst() throws IOException {
+    String fileText =
+        "(ns main)\n" +
+            "(defn foo-a [])\n" +
+            "(defn foo-b [])\n" +
+            "(foo-<caret>)";
+    configureFromFileText("dummy.clj", fileText);
+    final ClojureCompletionStatistics statistics = ClojureCompletionStatistics.getInstance(getProject());
+    statistics.itemAccepted("main/foo-b");
+    statistics.itemAccepted("main/foo-b");
+    final CompleteResult complete = complete();
+    assertNotNull(complete);
+    assertEquals("foo-b", complete.getElements()[0].getLookupString());
+  }
+
+  public void testStatisticsEviction() throws IOException {
+    final ClojureCompletionStatistics statistics = new ClojureCompletionStatistics(getProject());
+    for (int i = 0; i < 5000; i++) {
+      // accepted again and again, so it is never among the least recent
+      if (i % 1000 == 0) statistics.itemAccepted("main/keep");
+      statistics.itemAccepted("main/v" + i);
+    }
+    assertEquals(0, statistics.getCount("main/v0"));
+    assertEquals(1, statistics.getCount("main/v4999"));
+    assertEquals(5, statistics.getCount("main/keep"));
+    assertEquals(0, statistics.getCount("main/never"));
+  }
 }
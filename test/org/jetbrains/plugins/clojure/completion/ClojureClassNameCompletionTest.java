@@ -1,5 +1,9 @@
 package org.jetbrains.plugins.clojure.completion;
 
+import com.intellij.codeInsight.CodeInsightSettings;
+import com.intellij.codeInsight.lookup.LookupElement;
+import com.intellij.psi.PsiClass;
+
 import java.io.IOException;
 
 /**
@@ -48,4 +52,27 @@ public class ClojureClassNameCompletionTest extends ClojureCompletionTestBase {
     completeLookupItem(complete.getElements()[0]);
     checkResultByText(resultText);
   }
+
+  public void testExcludedPackage() throws IOException {
+    final CodeInsightSettings settings = CodeInsightSettings.getInstance();
+    final String[] excluded = settings.EXCLUDED_PACKAGES;
+    settings.EXCLUDED_PACKAGES = new String[]{"java.util"};
+    try {
+      String fileText =
+          "(ArrayList<caret>)";
+      configureFromFileText("dummy.clj", fileText);
+      final CompleteResult complete = complete(2);
+      if (complete != null) {
+        for (LookupElement element : complete.getElements()) {
+          final Object object = element.getObject();
+          if (object instanceof PsiClass) {
+            assertFalse(((PsiClass) object).getQualifiedName(), "java.util.ArrayList".equals(((PsiClass) object).getQualifiedName()));
+          }
+        }
+      }
+      checkResultByText(fileText);
+    } finally {
+      settings.EXCLUDED_PACKAGES = excluded;
+    }
+  }
 }
@@ -0,0 +1,29 @@
+package org.jetbrains.plugins.clojure.psi.stubs;
+
+import com.intellij.util.io.StringRef;
+import junit.framework.TestCase;
+
+/**
+ * @author ilyas
+ */
+public class StubNamesTest extends TestCase {
+  public void testEqualNamesShareInstance() throws Exception {
+    final String first = StubNames.intern(new String("clojure.core"));
+    final String second = StubNames.intern(new String("clojure.core"));
+    assertEquals("clojure.core", first);
+    assertSame(first, second);
+  }
+
+  public void testNull() throws Exception {
+    assertNull(StubNames.intern(null));
+  }
+
+  public void testInternRef() throws Exception {
+    final String name = StubNames.intern(new String("clojure.string"));
+    final StringRef ref = StringRef.fromString(new String("clojure.string"));
+    final StringRef interned = StubNames.internRef(ref);
+    assertSame(name, StringRef.toString(interned));
+    assertSame(interned, StubNames.internRef(interned));
+    assertNull(StubNames.internRef(null));
+  }
+}
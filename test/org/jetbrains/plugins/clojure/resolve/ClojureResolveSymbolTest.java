@@ -5,8 +5,11 @@ import com.intellij.psi.PsiClass;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiReference;
 import com.intellij.psi.ResolveResult;
+import com.intellij.psi.impl.source.PsiFileImpl;
 import com.intellij.psi.impl.source.resolve.reference.impl.PsiMultiReference;
 import org.jetbrains.plugins.clojure.psi.api.defs.ClDef;
+import org.jetbrains.plugins.clojure.psi.api.symbols.ClSymbol;
+import org.jetbrains.plugins.clojure.psi.impl.defs.ClProtocolMethod;
 import org.jetbrains.plugins.clojure.psi.impl.ns.ClSyntheticNamespace;
 import org.jetbrains.plugins.clojure.util.TestUtils;
 
@@ -79,6 +82,38 @@ public class ClojureResolveSymbolTest extends ClojureResolveTestCaseBase {
     assertTrue("deftest".equals(((ClDef) element).getName()));
   }
 
+  public void testCoreResolveDoesNotLoadLibraryAst() throws Exception {
+    configureFromFileText("stubs.clj", "(ns stubs (:require [clojure.java.io :as io]))\n(map io/as-file [\"a\"])");
+    getEditor().getCaretModel().moveToOffset(getFile().getText().indexOf("map") + 1);
+    final PsiElement element = findReference().resolve();
+    assertTrue(element instanceof ClDef);
+    assertEquals("map", ((ClDef) element).getName());
+    assertFalse(((PsiFileImpl) element.getContainingFile()).isContentsLoaded());
+
+    // protocol methods come from the protocol stub, its file is parsed only on navigation
+    getEditor().getCaretModel().moveToOffset(getFile().getText().indexOf("as-file") + 1);
+    final PsiElement method = findReference().resolve();
+    assertTrue(method instanceof ClProtocolMethod);
+    assertEquals("Coercions", ((ClProtocolMethod) method).getProtocol().getName());
+    assertFalse(((PsiFileImpl) method.getContainingFile()).isContentsLoaded());
+    assertTrue(method.getNavigationElement() instanceof ClSymbol);
+  }
+
+  public void testProtocolMethodInSameFile() throws Exception {
+    configureFromFileText("proto.clj", "(ns proto)\n(defprotocol P (m [this]))\n(m 1)");
+    final int offset = getFile().getText().indexOf("(m 1)") + 1;
+    getEditor().getCaretModel().moveToOffset(offset);
+    final PsiReference reference = findReference();
+    final PsiElement element = reference.resolve();
+    assertTrue(element instanceof ClProtocolMethod);
+    assertEquals("P", ((ClProtocolMethod) element).getProtocol().getName());
+
+    final ClSymbol declaration = ((ClProtocolMethod) element).getMethodSymbol();
+    assertNotNull(declaration);
+    assertTrue(reference.isReferenceTo(declaration));
+    assertTrue(reference.isReferenceTo(new ClProtocolMethod(((ClProtocolMethod) element).getProtocol(), "m")));
+  }
+
   // Actual test cases
 
   public void testUseNs() throws Exception {
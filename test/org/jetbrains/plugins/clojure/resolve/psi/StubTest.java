@@ -1,17 +1,50 @@
 package org.jetbrains.plugins.clojure.resolve.psi;
 
+import com.intellij.lang.ASTNode;
+import com.intellij.lexer.Lexer;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.vfs.JarFileSystem;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.PsiMethod;
 import com.intellij.psi.PsiReference;
 import com.intellij.psi.impl.source.PsiFileImpl;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.search.PsiShortNamesCache;
+import com.intellij.psi.stubs.IStubElementType;
+import com.intellij.psi.stubs.SerializationManager;
+import com.intellij.psi.stubs.StubElement;
 import com.intellij.psi.stubs.StubIndex;
 import com.intellij.psi.stubs.StubUpdatingIndex;
+import com.intellij.psi.tree.IElementType;
 import com.intellij.testFramework.fixtures.LightCodeInsightFixtureTestCase;
 import com.intellij.util.indexing.FileBasedIndex;
+import com.intellij.util.io.StringRef;
+import org.jetbrains.jps.clojure.model.impl.JpsClojureCompilerSettingsState;
+import org.jetbrains.plugins.clojure.compiler.ClojureCompilerSettings;
+import org.jetbrains.plugins.clojure.file.ClojureFileType;
+import org.jetbrains.plugins.clojure.lexer.ClojureFlexLexer;
+import org.jetbrains.plugins.clojure.lexer.ClojureTokenTypes;
+import org.jetbrains.plugins.clojure.psi.api.ClKeyword;
 import org.jetbrains.plugins.clojure.psi.api.defs.ClDef;
+import org.jetbrains.plugins.clojure.psi.api.synthetic.ClSyntheticClass;
+import org.jetbrains.plugins.clojure.psi.stubs.ClojureFileStubBuilder;
+import org.jetbrains.plugins.clojure.psi.stubs.api.ClDefStub;
+import org.jetbrains.plugins.clojure.psi.stubs.api.ClFileStub;
+import org.jetbrains.plugins.clojure.psi.stubs.api.ClNsStub;
+import org.jetbrains.plugins.clojure.util.TestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.*;
 
 /**
  * @author peter
  */
 public class StubTest extends LightCodeInsightFixtureTestCase {
+  private static final Logger LOG = Logger.getInstance("org.jetbrains.plugins.clojure.resolve.psi.StubTest");
 
   public void testDontParseUnrelatedNamespacesDuringResolve() {
     PsiFileImpl ns1 = (PsiFileImpl) myFixture.addFileToProject("ns1.clj", "(ns ns1)");
@@ -31,4 +64,190 @@ public class StubTest extends LightCodeInsightFixtureTestCase {
     assertInstanceOf(ref.resolve(), ClDef.class);
     assert !used.isContentsLoaded();
   }
+
+  private static final String GEN_CLASS_TEXT = "(ns my.Gen\n" +
+      "  (:gen-class\n" +
+      "    :extends java.util.AbstractList\n" +
+      "    :implements [java.lang.Runnable java.io.Serializable]\n" +
+      "    :state state\n" +
+      "    :methods [[twice [int] int] [label [] String]]))";
+
+  public void testGenClassStubRoundTrip() throws Exception {
+    final PsiFile file = myFixture.addFileToProject("my/Gen.clj", GEN_CLASS_TEXT);
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    SerializationManager.getInstance().serialize(new ClojureFileStubBuilder().buildStubTree(file), out);
+    final ClFileStub stub = (ClFileStub) SerializationManager.getInstance().deserialize(new ByteArrayInputStream(out.toByteArray()));
+
+    assertTrue(stub.isClassDefinition());
+    assertEquals("java.util.AbstractList", StringRef.toString(stub.getSuperClassName()));
+    assertEquals("state", StringRef.toString(stub.getStateName()));
+    assertOrderedEquals(stub.getInterfaceNames(), "java.lang.Runnable", "java.io.Serializable");
+    assertOrderedEquals(stub.getMethodSignatures(), "int twice(int p0)", "String label()");
+  }
+
+  public void testGenClassMethodFromJavaWithoutClojureAst() {
+    final JpsClojureCompilerSettingsState state = ClojureCompilerSettings.getInstance(getProject()).getState();
+    final boolean compile = state.COMPILE_CLOJURE;
+    state.COMPILE_CLOJURE = true;
+    try {
+      PsiFileImpl gen = (PsiFileImpl) myFixture.addFileToProject("my/Gen.clj", GEN_CLASS_TEXT);
+      myFixture.configureByText("Use.java", "class Use { void f(my.Gen g) { g.twi<caret>ce(1); } }");
+
+      PsiReference ref = myFixture.getFile().findReferenceAt(myFixture.getEditor().getCaretModel().getOffset());
+      assertNotNull(ref);
+      final PsiElement target = ref.resolve();
+      assertInstanceOf(target, PsiMethod.class);
+      assertInstanceOf(((PsiMethod) target).getContainingClass(), ClSyntheticClass.class);
+
+      final PsiMethod[] byName = PsiShortNamesCache.getInstance(getProject()).getMethodsByName("twice", GlobalSearchScope.allScope(getProject()));
+      assertEquals(1, byName.length);
+      assert !gen.isContentsLoaded();
+    } finally {
+      state.COMPILE_CLOJURE = compile;
+    }
+  }
+
+  /**
+   * Measures stub trees of the mock Clojure library. Every keyword token used to be a stub,
+   * so the stub count before keywords were dropped is the current count plus the keyword tokens.
+   * Numbers go to the test log.
+   */
+  public void testMockClojureLibStubs() throws Exception {
+    final VirtualFile jarRoot = JarFileSystem.getInstance().findFileByPath(TestUtils.getMockClojureLib() + JarFileSystem.JAR_SEPARATOR);
+    assertNotNull(jarRoot);
+    final List<VirtualFile> files = new ArrayList<VirtualFile>();
+    collectClojureFiles(jarRoot, files);
+    assertFalse(files.isEmpty());
+
+    int stubCount = 0;
+    int keywords = 0;
+    long bytes = 0;
+    long nanos = 0;
+    for (VirtualFile file : files) {
+      final PsiFile psiFile = PsiManager.getInstance(getProject()).findFile(file);
+      assertNotNull(psiFile);
+
+      final long start = System.nanoTime();
+      final StubElement stub = new ClojureFileStubBuilder().buildStubTree(psiFile);
+      final ByteArrayOutputStream out = new ByteArrayOutputStream();
+      SerializationManager.getInstance().serialize(stub, out);
+      nanos += System.nanoTime() - start;
+      bytes += out.size();
+
+      final List<StubElement> stubs = new ArrayList<StubElement>();
+      collectStubs(stub, stubs);
+      for (StubElement element : stubs) {
+        assertFalse(file.getPath(), element.getPsi() instanceof ClKeyword);
+      }
+      assertEquals(file.getPath(), countStubNodes(psiFile.getNode()), stubs.size());
+
+      final List<StubElement> restored = new ArrayList<StubElement>();
+      collectStubs((StubElement) SerializationManager.getInstance().deserialize(new ByteArrayInputStream(out.toByteArray())), restored);
+      assertEquals(file.getPath(), stubs.size(), restored.size());
+
+      stubCount += stubs.size();
+      keywords += countKeywordTokens(psiFile.getText());
+    }
+
+    assertTrue(keywords > 0);
+    LOG.info("mockClojureLib: " + files.size() + " files, " + stubCount + " stubs (" + (stubCount + keywords) +
+        " with keyword stubs), " + bytes + " bytes of stubs, built and serialized in " + nanos / 1000000 + " ms");
+  }
+
+  /**
+   * Compares memory retained by names of deserialized stubs of the mock Clojure library
+   * with one string per occurrence, as without interning, and with interned names.
+   * Numbers go to the test log.
+   */
+  public void testMockClojureLibStubNames() throws Exception {
+    final VirtualFile jarRoot = JarFileSystem.getInstance().findFileByPath(TestUtils.getMockClojureLib() + JarFileSystem.JAR_SEPARATOR);
+    assertNotNull(jarRoot);
+    final List<VirtualFile> files = new ArrayList<VirtualFile>();
+    collectClojureFiles(jarRoot, files);
+
+    final List<String> names = new ArrayList<String>();
+    for (VirtualFile file : files) {
+      final PsiFile psiFile = PsiManager.getInstance(getProject()).findFile(file);
+      assertNotNull(psiFile);
+      final ByteArrayOutputStream out = new ByteArrayOutputStream();
+      SerializationManager.getInstance().serialize(new ClojureFileStubBuilder().buildStubTree(psiFile), out);
+      final List<StubElement> stubs = new ArrayList<StubElement>();
+      collectStubs((StubElement) SerializationManager.getInstance().deserialize(new ByteArrayInputStream(out.toByteArray())), stubs);
+      for (StubElement element : stubs) {
+        if (element instanceof ClDefStub) {
+          final ClDefStub stub = (ClDefStub) element;
+          names.add(stub.getName());
+          names.add(stub.getDefiner());
+          names.addAll(Arrays.asList(stub.getProtocolMethodNames()));
+        } else if (element instanceof ClNsStub) {
+          final ClNsStub stub = (ClNsStub) element;
+          names.add(stub.getName());
+          names.addAll(Arrays.asList(stub.getRequiredNamespaces()));
+          names.addAll(Arrays.asList(stub.getImportedClasses()));
+        }
+      }
+    }
+    names.removeAll(Collections.singleton(null));
+    assertFalse(names.isEmpty());
+
+    final Map<String, String> byValue = new HashMap<String, String>();
+    final Set<String> instances = Collections.newSetFromMap(new IdentityHashMap<String, Boolean>());
+    long perOccurrence = 0;
+    long interned = 0;
+    for (String name : names) {
+      perOccurrence += retainedSize(name);
+      if (instances.add(name)) interned += retainedSize(name);
+      final String other = byValue.put(name, name);
+      assertTrue(name, other == null || other == name);
+    }
+    assertEquals(byValue.size(), instances.size());
+    assertTrue(interned < perOccurrence);
+    LOG.info("mockClojureLib: " + names.size() + " stub names, " + instances.size() + " distinct, about " +
+        perOccurrence + " bytes as separate strings, " + interned + " bytes interned");
+  }
+
+  /**
+   * @return approximate size of a string with its character array on a 64-bit VM with compressed references
+   */
+  private static long retainedSize(String s) {
+    return 24 + 16 + 2L * s.length();
+  }
+
+  private static int countStubNodes(ASTNode node) {
+    int count = 0;
+    for (ASTNode child = node.getFirstChildNode(); child != null; child = child.getTreeNext()) {
+      final IElementType type = child.getElementType();
+      if (type instanceof IStubElementType && ((IStubElementType) type).shouldCreateStub(child)) count++;
+      count += countStubNodes(child);
+    }
+    return count;
+  }
+
+  private static int countKeywordTokens(String text) {
+    int count = 0;
+    final Lexer lexer = new ClojureFlexLexer();
+    lexer.start(text);
+    while (lexer.getTokenType() != null) {
+      if (lexer.getTokenType() == ClojureTokenTypes.COLON_SYMBOL) count++;
+      lexer.advance();
+    }
+    return count;
+  }
+
+  private static void collectStubs(StubElement<?> parent, List<StubElement> stubs) {
+    for (StubElement child : parent.getChildrenStubs()) {
+      stubs.add(child);
+      collectStubs(child, stubs);
+    }
+  }
+
+  private static void collectClojureFiles(VirtualFile dir, List<VirtualFile> files) {
+    for (VirtualFile child : dir.getChildren()) {
+      if (child.isDirectory()) {
+        collectClojureFiles(child, files);
+      } else if (child.getFileType() == ClojureFileType.CLOJURE_FILE_TYPE) {
+        files.add(child);
+      }
+    }
+  }
 }